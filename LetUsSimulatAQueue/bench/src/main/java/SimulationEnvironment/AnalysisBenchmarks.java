@@ -0,0 +1,96 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of analytic evaluation latency across model sizes, one operation per evaluation,
+ * and of a parameter sweep over 100 x 2 x 500 x 2 configurations, one operation per sweep.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class AnalysisBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class FiniteCapacity {
+        @Param({"10", "1000", "100000"})
+        int capacity;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Servers {
+        @Param({"10", "100", "1000", "10000"})
+        int servers;
+    }
+
+    /**
+     * M/M/c/K models with K a small and a large multiple of c.
+     */
+    @State(Scope.Benchmark)
+    public static class ServersAndCapacity {
+        @Param({"10", "1000"})
+        int servers;
+
+        @Param({"2", "100"})
+        int capacityPerServer;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Sweep {
+        double[] lambdas = new double[100];
+        int[] servers = new int[500];
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < lambdas.length; i++) {
+                lambdas[i] = 10 + 10 * i;
+            }
+            for (int i = 0; i < servers.length; i++) {
+                servers[i] = 2 * (i + 1);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mm1k(FiniteCapacity model, Blackhole blackhole) {
+        blackhole.consume(QueueSolver.mm1k(0.9, 1, model.capacity));
+    }
+
+    @Benchmark
+    public void mmc(Servers model, Blackhole blackhole) {
+        blackhole.consume(QueueSolver.mmc(0.9 * model.servers, 1, model.servers));
+    }
+
+    @Benchmark
+    public void mmck(ServersAndCapacity model, Blackhole blackhole) {
+        blackhole.consume(QueueSolver.mmck(0.9 * model.servers, 1, model.servers,
+                model.servers * model.capacityPerServer));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void sweep(Sweep grid, Blackhole blackhole) {
+        blackhole.consume(ParameterSweep.evaluate(grid.lambdas, new double[]{1, 2}, grid.servers,
+                new int[]{QueueSolver.UNLIMITED, 1_200}));
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of Jackson network simulation, one operation per run of a fixed number of
+ * external arrivals on a tandem line and on a random 500-station network.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class NetworkBenchmarks {
+    private static final long TANDEM_ARRIVALS = 10_000;
+
+    private JacksonNetwork tandem;
+    private JacksonNetwork mesh;
+
+    @Setup
+    public void setUp() {
+        tandem = JacksonNetwork.tandem(100, 1.6, 1, 2);
+        mesh = randomNetwork(500);
+    }
+
+    @Benchmark
+    public void tandem100(Blackhole blackhole) {
+        NetworkResult result = new NetworkSimulation(tandem, new Xoshiro256PlusPlus(SimulationBenchmarks.SEED))
+                .run(TANDEM_ARRIVALS, ProgressMonitor.NONE);
+        blackhole.consume(result.getTimesInNetwork().getMean());
+    }
+
+    @Benchmark
+    public void random500(Blackhole blackhole) {
+        NetworkResult result = new NetworkSimulation(mesh, new Xoshiro256PlusPlus(SimulationBenchmarks.SEED))
+                .run(SimulationBenchmarks.CUSTOMERS, ProgressMonitor.NONE);
+        blackhole.consume(result.getTimesInNetwork().getMean());
+    }
+
+    // Builds a network where every station routes to three random others and sizes its servers for ρ of at most 0.8
+    private static JacksonNetwork randomNetwork(int stations) {
+        SplittableRandom random = new SplittableRandom(SimulationBenchmarks.SEED);
+        int[] servers = new int[stations];
+        double[] serviceRates = new double[stations];
+        double[] externalRates = new double[stations];
+        double[][] routing = new double[stations][stations];
+        for (int i = 0; i < stations; i++) {
+            servers[i] = 1;
+            serviceRates[i] = 1;
+            externalRates[i] = random.nextDouble();
+            for (int j = 0; j < 3; j++) {
+                routing[i][random.nextInt(stations)] += 0.7 / 3;
+            }
+        }
+        double[] lambda = new JacksonNetwork(servers, serviceRates, externalRates, routing).getArrivalRates();
+        for (int i = 0; i < stations; i++) {
+            servers[i] = Math.max(1, (int) Math.ceil(lambda[i] / 0.8));
+        }
+        return new JacksonNetwork(servers, serviceRates, externalRates, routing);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of variate generation and simulation throughput, one operation per exponential
+ * time or per customer, so ns/op and, with {@code -prof gc}, B/op are per customer.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SimulationBenchmarks {
+    static final long SEED = 42;
+    static final int CUSTOMERS = 1_000_000;
+    private static final int DETAILED_CUSTOMERS = 100_000;
+
+    private final double[] variates = new double[CUSTOMERS];
+    private Xoshiro256PlusPlus generator;
+    private SplittableRandom splittable;
+
+    @Setup
+    public void setUp() {
+        generator = new Xoshiro256PlusPlus(SEED);
+        splittable = new SplittableRandom(SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CUSTOMERS)
+    public void exponentialZiggurat(Blackhole blackhole) {
+        Distribution.exponential(1).fill(generator, variates, 0, CUSTOMERS);
+        blackhole.consume(variates);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CUSTOMERS)
+    public void exponentialInversion(Blackhole blackhole) {
+        for (int i = 0; i < CUSTOMERS; i++) {
+            variates[i] = -Math.log(1 - splittable.nextDouble());
+        }
+        blackhole.consume(variates);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CUSTOMERS)
+    public void streamingMM1(Blackhole blackhole) {
+        StreamingSimulation simulation = new StreamingSimulation(1, 0.9, new Xoshiro256PlusPlus(SEED));
+        simulation.advance(CUSTOMERS);
+        blackhole.consume(simulation.getWaitTimes().getMean());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DETAILED_CUSTOMERS)
+    public void detailedMM1(Blackhole blackhole) {
+        SimulationResult result = new QueueSimulator().run(SimulationConfig.mm1(1, 0.9, DETAILED_CUSTOMERS, SEED),
+                ProgressMonitor.NONE);
+        blackhole.consume(result.getAverageWaitTime());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CUSTOMERS)
+    public void engineMMc(Blackhole blackhole) {
+        EngineResult result = new QueueingEngine(Distribution.exponential(1 / 9.0), Distribution.exponential(1),
+                10, QueueSolver.UNLIMITED, new Xoshiro256PlusPlus(SEED)).run(CUSTOMERS, ProgressMonitor.NONE);
+        blackhole.consume(result.getL());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CUSTOMERS)
+    public void engineMMcK(Blackhole blackhole) {
+        EngineResult result = new QueueingEngine(Distribution.exponential(1 / 9.0), Distribution.exponential(1),
+                10, 20, new Xoshiro256PlusPlus(SEED)).run(CUSTOMERS, ProgressMonitor.NONE);
+        blackhole.consume(result.getL());
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of timeline and chart preparation on a fixed M/M/1 run of one million customers.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TimelineBenchmarks {
+    private static final int CUSTOMERS = SimulationBenchmarks.CUSTOMERS;
+    private static final int CHART_WIDTH = 1000; // Buckets of the downsampled chart, about one per pixel
+
+    private final double[] arrivals = new double[CUSTOMERS];
+    private final double[] departures = new double[CUSTOMERS];
+    private OccupancyTimeline timeline;
+
+    @Setup
+    public void setUp() {
+        fillMM1Run(arrivals, departures, 1, 0.9);
+        timeline = OccupancyTimeline.build(arrivals.clone(), departures.clone(), CUSTOMERS);
+    }
+
+    /**
+     * One operation per customer; the copies of the input columns are part of the measured work,
+     * since build sorts them in place.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CUSTOMERS)
+    public void buildTimeline(Blackhole blackhole) {
+        OccupancyTimeline built = OccupancyTimeline.build(arrivals.clone(), departures.clone(), CUSTOMERS);
+        blackhole.consume(built.timeAverageInSystem());
+    }
+
+    /**
+     * One operation per downsampled chart of two million points.
+     */
+    @Benchmark
+    public void downsampleChart(Blackhole blackhole) {
+        blackhole.consume(ChartDownsampler.downsample(timeline, timeline.getStartTime(), timeline.getEndTime(),
+                CHART_WIDTH));
+    }
+
+    // Generates the arrival and departure times of a fixed M/M/1 run
+    private static void fillMM1Run(double[] arrivals, double[] departures, double meanInterarrival, double meanService) {
+        SplittableRandom random = new SplittableRandom(SimulationBenchmarks.SEED);
+        double time = 0, lastServiceEnd = 0;
+        for (int i = 0; i < arrivals.length; i++) {
+            time += i == 0 ? 0 : -meanInterarrival * Math.log(1 - random.nextDouble());
+            lastServiceEnd = Math.max(time, lastServiceEnd) - meanService * Math.log(1 - random.nextDouble());
+            arrivals[i] = time;
+            departures[i] = lastServiceEnd;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Runs a single-server simulation only as long as its answer needs.
+ * The run first grows a pilot until MSER-5 locates the end of the warm-up and then discards
+ * that warm-up only. The streaming statistics cannot forget single customers, so the pilot hands
+ * them over in a few segments per doubling and the warm-up is rounded up to the next segment start;
+ * the batch series drops exactly the warm-up groups. The run then keeps simulating until the
+ * batch-means confidence intervals of the waiting time and the time in system reach the requested
+ * relative precision, or until the customer budget is spent.
+ */
+
+public class AdaptiveRunner {
+    private static final long PILOT_CUSTOMERS = 10_000; // First look for the end of the warm-up
+    private static final long MIN_STEP = 10_000;        // Fewest customers between precision checks
+    private static final int BATCHES = 30;              // Number of batches of the batch-means intervals
+    private static final int PILOT_SEGMENTS = 4;        // Segments per pilot step the warm-up is rounded to
+
+    /**
+     * Runs the simulation adaptively.
+     *
+     * @param simulation        A fresh simulation to drive.
+     * @param relativePrecision Target half-width of the intervals relative to their mean, e.g. 0.05.
+     * @param confidence        Confidence level of the intervals, e.g. 0.95.
+     * @param maxCustomers      Budget of customers, including the warm-up.
+     * @param monitor           Receives progress against the budget and may cancel the run.
+     * @return The metrics after the warm-up with their intervals.
+     * @throws CancellationException If the monitor cancels the run.
+     */
+    public static AdaptiveSummary run(StreamingSimulation simulation, double relativePrecision, double confidence,
+                                      long maxCustomers, ProgressMonitor monitor) {
+        if (!(relativePrecision > 0)) throw new IllegalArgumentException("Relative precision must be positive");
+        BatchSeries waitTimes = new BatchSeries();
+        BatchSeries timesInSystem = new BatchSeries();
+        simulation.setOutputSeries(waitTimes, timesInSystem);
+
+        // Phase 1: double the pilot until the warm-up can be located, handing its statistics over in segments
+        long simulated = 0, warmup = -1;
+        boolean exhausted = false; // The source ran out, e.g. at the end of a trace
+        List<StreamingSimulation.Segment> segments = new ArrayList<>();
+        while (warmup < 0 && simulated < maxCustomers && !exhausted) {
+            long step = Math.min(Math.max(PILOT_CUSTOMERS, simulated), maxCustomers - simulated);
+            for (int part = 0; part < PILOT_SEGMENTS && !exhausted; part++) {
+                long partStep = step * (part + 1) / PILOT_SEGMENTS - step * part / PILOT_SEGMENTS;
+                long done = simulation.advance(partStep, ProgressMonitor.offset(monitor, simulated, maxCustomers));
+                simulated += done;
+                exhausted = done < partStep;
+                segments.add(simulation.takeStatistics());
+            }
+            warmup = waitTimes.mserTruncation();
+        }
+
+        // Merge back the segments after the warm-up, or all of them if it was not located
+        long statisticsStart = simulated;
+        long segmentStart = 0;
+        for (StreamingSimulation.Segment segment : segments) {
+            if (segmentStart >= Math.max(0, warmup)) {
+                statisticsStart = Math.min(statisticsStart, segmentStart);
+                simulation.mergeStatistics(segment);
+            }
+            segmentStart += segment.getCustomers();
+        }
+        if (warmup > 0) {
+            waitTimes.discard(warmup);
+            timesInSystem.discard(warmup);
+        }
+
+        // Phase 2: simulate in growing steps until both intervals are precise enough
+        boolean reached = false;
+        ConfidenceInterval waitTime, timeInSystem;
+        while (true) {
+            waitTime = waitTimes.batchMeansInterval(BATCHES, confidence);
+            timeInSystem = timesInSystem.batchMeansInterval(BATCHES, confidence);
+            if (warmup >= 0 && waitTime != null && timeInSystem != null
+                    && waitTime.getRelativePrecision() <= relativePrecision
+                    && timeInSystem.getRelativePrecision() <= relativePrecision) {
+                reached = true;
+                break;
+            }
+            if (warmup < 0 || simulated >= maxCustomers || exhausted) break;
+
+            long step = Math.min(Math.max(MIN_STEP, (simulated - statisticsStart) / 4), maxCustomers - simulated);
+            long done = simulation.advance(step, ProgressMonitor.offset(monitor, simulated, maxCustomers));
+            simulated += done;
+            exhausted = done < step;
+        }
+        monitor.progress(maxCustomers, maxCustomers);
+
+        return new AdaptiveSummary(relativePrecision, confidence, BATCHES, reached, warmup, statisticsStart, simulated,
+                waitTime, timeInSystem, simulation);
+    }
+}
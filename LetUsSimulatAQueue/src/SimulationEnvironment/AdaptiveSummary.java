@@ -0,0 +1,117 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Outcome of an adaptive run: the detected warm-up, the customers it took and the
+ * batch-means confidence intervals of the steady-state metrics.
+ */
+
+public class AdaptiveSummary {
+    private final double targetPrecision;
+    private final double confidence;
+    private final int batches;
+    private final boolean precisionReached;
+    private final long warmupCustomers;
+    private final long statisticsStart;
+    private final long customersSimulated;
+    private final ConfidenceInterval waitTime;
+    private final ConfidenceInterval timeInSystem;
+    private final StreamingSimulation simulation;
+
+    public AdaptiveSummary(double targetPrecision, double confidence, int batches, boolean precisionReached,
+                           long warmupCustomers, long statisticsStart, long customersSimulated,
+                           ConfidenceInterval waitTime, ConfidenceInterval timeInSystem,
+                           StreamingSimulation simulation) {
+        this.targetPrecision = targetPrecision;
+        this.confidence = confidence;
+        this.batches = batches;
+        this.precisionReached = precisionReached;
+        this.warmupCustomers = warmupCustomers;
+        this.statisticsStart = statisticsStart;
+        this.customersSimulated = customersSimulated;
+        this.waitTime = waitTime;
+        this.timeInSystem = timeInSystem;
+        this.simulation = simulation;
+    }
+
+    public boolean isPrecisionReached() {
+        return precisionReached;
+    }
+
+    /**
+     * @return Customers in the warm-up found by MSER-5, or -1 if it was not located within the budget.
+     */
+    public long getWarmupCustomers() {
+        return warmupCustomers;
+    }
+
+    /**
+     * @return Customers left out of the summary statistics: the warm-up rounded up to the start of the next pilot
+     * segment, or 0 if no warm-up was found.
+     * The confidence intervals leave out exactly the warm-up.
+     */
+    public long getStatisticsStart() {
+        return statisticsStart;
+    }
+
+    public long getCustomersSimulated() {
+        return customersSimulated;
+    }
+
+    /**
+     * @return Interval of the average waiting time, or null if too few customers were simulated.
+     */
+    public ConfidenceInterval getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * @return Interval of the average time in system, or null if too few customers were simulated.
+     */
+    public ConfidenceInterval getTimeInSystem() {
+        return timeInSystem;
+    }
+
+    public StreamingSimulation getSimulation() {
+        return simulation;
+    }
+
+    /**
+     * Formats the outcome of the run.
+     *
+     * @return The warm-up, stopping reason and steady-state metrics.
+     */
+    public String formatSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Adaptive run to a relative precision of %.2f%%: %s\n", targetPrecision * 100,
+                precisionReached ? "reached" : "not reached within the customer budget"));
+        if (warmupCustomers >= 0) {
+            summary.append(String.format("Warm-up (MSER-5): %d customers discarded, statistics collected from customer %d\n",
+                    warmupCustomers, statisticsStart + 1));
+        } else {
+            summary.append("Warm-up (MSER-5): not located, statistics include the whole run\n");
+        }
+        summary.append(String.format("Customers Simulated: %d (%d in the statistics)\n",
+                customersSimulated, customersSimulated - statisticsStart));
+
+        summary.append(String.format("\nPerformance Metrics (%.0f%% batch-means confidence intervals, %d batches):\n",
+                confidence * 100, batches));
+        summary.append(String.format("Average Waiting Time: %s\n", formatInterval(waitTime)));
+        summary.append(String.format("Average Time in System: %s\n", formatInterval(timeInSystem)));
+        summary.append(String.format("Server Utilization: %.2f%%\n", simulation.getServerUtilization() * 100));
+        OccupancyHistogram numberInSystem = simulation.getNumberInSystem();
+        summary.append(String.format("Average Number in System (L): %.4f\n", numberInSystem.getMean()));
+        summary.append(simulation.getWaitTimeHistogram().formatPercentiles("Waiting Time"));
+        summary.append(simulation.getTimeInSystemHistogram().formatPercentiles("Time in System"));
+        summary.append(numberInSystem.formatPercentiles());
+        return summary.toString();
+    }
+
+    private static String formatInterval(ConfidenceInterval interval) {
+        return interval == null ? "too few customers for an interval"
+                : String.format("%s (±%.2f%%)", interval, interval.getRelativePrecision() * 100);
+    }
+}
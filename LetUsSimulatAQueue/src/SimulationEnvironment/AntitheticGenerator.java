@@ -0,0 +1,30 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Mirror image of another random stream for antithetic variates.
+ * Every long is the bitwise complement of the wrapped stream's, so every uniform U
+ * drawn from its top bits becomes 1 - U - 2^-53. Distributions that invert U
+ * monotonically then yield negatively correlated twins of the original times.
+ */
+
+public final class AntitheticGenerator implements RandomGenerator {
+    private final RandomGenerator base;
+
+    /**
+     * @param base The stream to mirror; it is advanced as this one is used.
+     */
+    public AntitheticGenerator(RandomGenerator base) {
+        this.base = base;
+    }
+
+    @Override
+    public long nextLong() {
+        return ~base.nextLong();
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Output series of a simulation kept as means of consecutive groups of observations.
+ * The series starts with groups of five, as MSER-5 expects; when the fixed buffer fills,
+ * neighbouring groups are merged and the group size doubles, so the memory stays bounded
+ * however long the run is. The series feeds both the warm-up detection and the batch-means
+ * confidence intervals.
+ */
+
+public class BatchSeries {
+    private static final int INITIAL_GROUP_SIZE = 5; // Observations per group of MSER-5
+    private static final int CAPACITY = 1 << 16;      // Groups kept before neighbours are merged
+
+    private final double[] groupMeans = new double[CAPACITY];
+    private int groups;
+    private long groupSize = INITIAL_GROUP_SIZE;
+
+    // Group currently being filled
+    private double partialSum;
+    private long partialCount;
+
+    /**
+     * Adds the next observation of the series.
+     *
+     * @param value The observed value.
+     */
+    public void add(double value) {
+        partialSum += value;
+        if (++partialCount == groupSize) {
+            if (groups == CAPACITY) {
+                // The doubled groups leave the observations just collected as the first half of the next group
+                compact();
+                return;
+            }
+            groupMeans[groups++] = partialSum / groupSize;
+            partialSum = 0;
+            partialCount = 0;
+        }
+    }
+
+    /**
+     * Forgets all observations.
+     */
+    public void clear() {
+        groups = 0;
+        groupSize = INITIAL_GROUP_SIZE;
+        partialSum = 0;
+        partialCount = 0;
+    }
+
+    /**
+     * Drops the oldest observations, e.g. the warm-up, rounded up to whole groups.
+     *
+     * @param observations Number of observations to drop.
+     */
+    public void discard(long observations) {
+        int dropped = (int) Math.min(groups, (observations + groupSize - 1) / groupSize);
+        System.arraycopy(groupMeans, dropped, groupMeans, 0, groups - dropped);
+        groups -= dropped;
+    }
+
+    /**
+     * @return Number of complete groups.
+     */
+    public int size() {
+        return groups;
+    }
+
+    /**
+     * @return Number of observations in each group.
+     */
+    public long getGroupSize() {
+        return groupSize;
+    }
+
+    /**
+     * Finds the end of the warm-up with the MSER rule (White, 1997): the truncation point d that
+     * minimises the squared standard error of the mean of the remaining groups, Σ(Zj - Z̄)² / (m - d)².
+     * The point is trusted only if it lies in the first half of the series; a later minimum means
+     * the series is still too short to tell the transient from the steady state.
+     *
+     * @return The number of observations to discard, or -1 if the warm-up cannot be located yet.
+     */
+    public long mserTruncation() {
+        if (groups < 10) return -1;
+
+        // Walk backwards, adding one group at a time to a Welford accumulator of the tail
+        double mean = 0, m2 = 0, best = Double.POSITIVE_INFINITY;
+        int bestD = -1;
+        for (int d = groups - 1; d >= 0; d--) {
+            int n = groups - d;
+            double delta = groupMeans[d] - mean;
+            mean += delta / n;
+            m2 += delta * (groupMeans[d] - mean);
+            if (n >= 5 && m2 / ((double) n * n) <= best) {
+                best = m2 / ((double) n * n);
+                bestD = d;
+            }
+        }
+        return bestD <= groups / 2 ? bestD * groupSize : -1;
+    }
+
+    /**
+     * Computes a batch-means confidence interval for the mean of the series. The groups are split
+     * into the given number of equal batches, whose means are nearly independent once the batches
+     * are long compared with the correlation of the series.
+     *
+     * @param batches    Number of batches.
+     * @param confidence Confidence level, e.g. 0.95.
+     * @return The interval, or null if there are fewer groups than batches.
+     */
+    public ConfidenceInterval batchMeansInterval(int batches, double confidence) {
+        int perBatch = groups / batches;
+        if (perBatch == 0) return null;
+
+        // Leave out the oldest groups that do not fill a whole batch
+        int start = groups - perBatch * batches;
+        RunningStatistics batchMeans = new RunningStatistics();
+        for (int b = 0; b < batches; b++) {
+            double sum = 0;
+            for (int g = start + b * perBatch; g < start + (b + 1) * perBatch; g++) {
+                sum += groupMeans[g];
+            }
+            batchMeans.add(sum / perBatch);
+        }
+        return ConfidenceInterval.of(batchMeans, confidence);
+    }
+
+    // Merges neighbouring groups in place, halving their number and doubling their size
+    private void compact() {
+        for (int i = 0; i < groups / 2; i++) {
+            groupMeans[i] = (groupMeans[2 * i] + groupMeans[2 * i + 1]) / 2;
+        }
+        groups /= 2;
+        groupSize *= 2;
+    }
+}
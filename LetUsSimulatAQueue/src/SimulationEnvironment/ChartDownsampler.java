@@ -0,0 +1,80 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Reduces an occupancy timeline to a bounded number of chart points.
+ * The visible time range is split into one bucket per pixel column and each bucket keeps
+ * its first, lowest, highest and last point, so peaks stay visible at any zoom level.
+ */
+
+public class ChartDownsampler {
+
+    /**
+     * Downsamples the part of a timeline that falls into the given time range.
+     *
+     * @param timeline The full occupancy timeline.
+     * @param from     Start of the visible time range.
+     * @param to       End of the visible time range.
+     * @param buckets  Number of buckets, usually the chart width in pixels.
+     * @return A timeline with at most 4 points per bucket plus the two range end points.
+     */
+    public static OccupancyTimeline downsample(OccupancyTimeline timeline, double from, double to, int buckets) {
+        buckets = Math.max(1, buckets);
+        double[] times = new double[4 * buckets + 2];
+        int[] counts = new int[4 * buckets + 2];
+        int size = 0;
+        if (timeline.size() == 0 || to <= from) {
+            return new OccupancyTimeline(times, counts, 0);
+        }
+
+        // Start with the step that is in effect at the left edge of the range
+        int index = timeline.indexAt(from);
+        if (index >= 0) {
+            times[size] = from;
+            counts[size] = timeline.getCount(index);
+            size++;
+        }
+        index++;
+
+        double bucketWidth = (to - from) / buckets;
+        int[] kept = new int[4];
+        for (int bucket = 0; bucket < buckets && index < timeline.size(); bucket++) {
+            double bucketEnd = bucket == buckets - 1 ? to : from + (bucket + 1) * bucketWidth;
+            if (timeline.getTime(index) > bucketEnd) continue; // Empty bucket, the step simply carries on
+
+            // Find the first, minimum, maximum and last point of the bucket
+            int first = index, min = index, max = index;
+            while (index < timeline.size() && timeline.getTime(index) <= bucketEnd) {
+                int count = timeline.getCount(index);
+                if (count < timeline.getCount(min)) min = index;
+                if (count > timeline.getCount(max)) max = index;
+                index++;
+            }
+            int last = index - 1;
+
+            // Emit them in time order without duplicates
+            kept[0] = first;
+            kept[1] = Math.min(min, max);
+            kept[2] = Math.max(min, max);
+            kept[3] = last;
+            for (int k = 0; k < 4; k++) {
+                if (k > 0 && kept[k] == kept[k - 1]) continue;
+                times[size] = timeline.getTime(kept[k]);
+                counts[size] = timeline.getCount(kept[k]);
+                size++;
+            }
+        }
+
+        // Close the range with the step that is in effect at the right edge
+        int lastIndex = timeline.indexAt(to);
+        if (lastIndex >= 0 && size > 0 && times[size - 1] < to) {
+            times[size] = to;
+            counts[size] = timeline.getCount(lastIndex);
+            size++;
+        }
+        return new OccupancyTimeline(times, counts, size);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Compares two single-server configurations over paired replications, with optional variance reduction.
+ * <ul>
+ *     <li>Common random numbers: replication i of both configurations draws its arrivals from the same
+ *     stream and its services from another shared stream, so the two runs see the same customers scaled
+ *     to their own means and the noise largely cancels out of the difference.</li>
+ *     <li>Antithetic variates: replications come in pairs whose second run mirrors the uniforms of the
+ *     first (U becomes 1 - U), so the errors of the pair partly cancel out of their average.</li>
+ * </ul>
+ * Antithetic runs invert uniforms for their exponential times, because the mirroring only
+ * carries over to times that grow monotonically with U.
+ */
+
+public class ComparisonRunner {
+
+    /**
+     * Runs both configurations and compares their averages.
+     *
+     * @param a                   The first configuration; its number of customers, replications and seed are used for both.
+     * @param b                   The second configuration, which only contributes its mean times.
+     * @param commonRandomNumbers Drive both configurations with the same arrival and service streams.
+     * @param antithetic          Run the replications as antithetic pairs.
+     * @param confidence          Confidence level of the intervals, e.g. 0.95.
+     * @param monitor             Receives the number of customers simulated over both configurations and may cancel the run.
+     * @return The averages of both configurations and of their difference.
+     * @throws CancellationException    If the monitor cancels the run.
+     * @throws IllegalArgumentException If the number of customers over all replications does not fit in a long.
+     */
+    public static ComparisonSummary compare(SimulationConfig a, SimulationConfig b, boolean commonRandomNumbers,
+                                            boolean antithetic, double confidence, ProgressMonitor monitor) {
+        if (a.getTrace() != null || b.getTrace() != null || a.isMultiServer() || b.isMultiServer()) {
+            throw new IllegalArgumentException("Comparisons need single-server configurations with random times");
+        }
+        int replications = a.getReplications();
+        if (antithetic && replications % 2 != 0) {
+            throw new IllegalArgumentException("Antithetic runs need an even number of replications");
+        }
+        long customers = a.getNumCustomers();
+        int bases = antithetic ? replications / 2 : replications; // Replications with streams of their own
+
+        // Hand out the streams up front so each replication gets the same streams regardless of scheduling
+        Xoshiro256PlusPlus root = new Xoshiro256PlusPlus(a.getSeed());
+        Xoshiro256PlusPlus[][] streams = new Xoshiro256PlusPlus[bases][4];
+        for (int k = 0; k < bases; k++) {
+            streams[k][0] = root.nextStream(); // Arrivals of A
+            streams[k][1] = root.nextStream(); // Services of A
+            streams[k][2] = commonRandomNumbers ? copy(streams[k][0]) : root.nextStream(); // Arrivals of B
+            streams[k][3] = commonRandomNumbers ? copy(streams[k][1]) : root.nextStream(); // Services of B
+        }
+
+        // One slot per replication; antithetic twins sit next to each other
+        double[] waitA = new double[replications], waitB = new double[replications];
+        double[] systemA = new double[replications], systemB = new double[replications];
+        long total;
+        try {
+            total = Math.multiplyExact(Math.multiplyExact(2, customers), replications);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Too many customers over all replications");
+        }
+        AtomicLong simulated = new AtomicLong();
+
+        IntStream.range(0, bases).parallel().forEach(k -> {
+            int twins = antithetic ? 2 : 1;
+            for (int t = 0; t < twins; t++) {
+                if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                int i = k * twins + t;
+                boolean mirrored = t == 1;
+                StreamingSimulation runA = simulate(a, streams[k][0], streams[k][1], antithetic, mirrored, customers,
+                        ProgressMonitor.concurrent(monitor, simulated, total));
+                StreamingSimulation runB = simulate(b, streams[k][2], streams[k][3], antithetic, mirrored, customers,
+                        ProgressMonitor.concurrent(monitor, simulated, total));
+                waitA[i] = runA.getWaitTimes().getMean();
+                waitB[i] = runB.getWaitTimes().getMean();
+                systemA[i] = runA.getTimesInSystem().getMean();
+                systemB[i] = runB.getTimesInSystem().getMean();
+            }
+        });
+
+        return new ComparisonSummary(a, b, replications, customers, commonRandomNumbers, antithetic,
+                compareMetric(waitA, waitB, antithetic, confidence),
+                compareMetric(systemA, systemB, antithetic, confidence));
+    }
+
+    // Runs one replication of a configuration on copies of its streams, mirrored for the second twin
+    private static StreamingSimulation simulate(SimulationConfig config, Xoshiro256PlusPlus arrivals,
+                                                Xoshiro256PlusPlus services, boolean antithetic, boolean mirrored,
+                                                long customers, ProgressMonitor monitor) {
+        Distribution interarrivalTimes = antithetic
+                ? Distribution.exponentialByInversion(config.getMeanInterarrival())
+                : Distribution.exponential(config.getMeanInterarrival());
+        Distribution serviceTimes = antithetic
+                ? Distribution.exponentialByInversion(config.getMeanService())
+                : Distribution.exponential(config.getMeanService());
+        CustomerSource source = mirrored
+                ? new RandomCustomerSource(interarrivalTimes, serviceTimes,
+                new AntitheticGenerator(copy(arrivals)), new AntitheticGenerator(copy(services)))
+                : new RandomCustomerSource(interarrivalTimes, serviceTimes, copy(arrivals), copy(services));
+        StreamingSimulation simulation = new StreamingSimulation(source);
+        simulation.advance(customers, monitor);
+        return simulation;
+    }
+
+    // Intervals of both averages and of their difference, plus the variance reduction of the difference
+    private static ComparisonSummary.Metric compareMetric(double[] a, double[] b, boolean antithetic, double confidence) {
+        RunningStatistics replicationsA = new RunningStatistics(), replicationsB = new RunningStatistics();
+        RunningStatistics observationsA = new RunningStatistics(), observationsB = new RunningStatistics();
+        RunningStatistics differences = new RunningStatistics();
+        int step = antithetic ? 2 : 1;
+        for (int i = 0; i < a.length; i += step) {
+            // An antithetic pair counts as one observation, the average of its twins
+            double meanA = antithetic ? (a[i] + a[i + 1]) / 2 : a[i];
+            double meanB = antithetic ? (b[i] + b[i + 1]) / 2 : b[i];
+            observationsA.add(meanA);
+            observationsB.add(meanB);
+            differences.add(meanB - meanA);
+        }
+        for (int i = 0; i < a.length; i++) {
+            replicationsA.add(a[i]);
+            replicationsB.add(b[i]);
+        }
+
+        // Variance of the estimated difference had every replication used streams of its own,
+        // over the variance actually achieved with the same number of replications
+        double independent = (replicationsA.getVariance() + replicationsB.getVariance()) / a.length;
+        double achieved = differences.getVariance() / differences.getCount();
+        double reduction = achieved > 0 ? independent / achieved : Double.POSITIVE_INFINITY;
+
+        return new ComparisonSummary.Metric(ConfidenceInterval.of(observationsA, confidence),
+                ConfidenceInterval.of(observationsB, confidence),
+                ConfidenceInterval.of(differences, confidence), reduction);
+    }
+
+    private static Xoshiro256PlusPlus copy(Xoshiro256PlusPlus stream) {
+        return new Xoshiro256PlusPlus(stream.getState());
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Outcome of comparing two configurations over paired replications.
+ */
+
+public class ComparisonSummary {
+
+    /**
+     * One compared metric: the intervals of both configurations and of their difference.
+     */
+    public static class Metric {
+        private final ConfidenceInterval a;
+        private final ConfidenceInterval b;
+        private final ConfidenceInterval difference;
+        private final double varianceReduction;
+
+        public Metric(ConfidenceInterval a, ConfidenceInterval b, ConfidenceInterval difference,
+                      double varianceReduction) {
+            this.a = a;
+            this.b = b;
+            this.difference = difference;
+            this.varianceReduction = varianceReduction;
+        }
+
+        public ConfidenceInterval getA() {
+            return a;
+        }
+
+        public ConfidenceInterval getB() {
+            return b;
+        }
+
+        /**
+         * @return Interval of B minus A.
+         */
+        public ConfidenceInterval getDifference() {
+            return difference;
+        }
+
+        /**
+         * @return How many times as many independent replications would give the difference the same precision.
+         */
+        public double getVarianceReduction() {
+            return varianceReduction;
+        }
+    }
+
+    private final SimulationConfig a;
+    private final SimulationConfig b;
+    private final int replications;
+    private final long customersPerReplication;
+    private final boolean commonRandomNumbers;
+    private final boolean antithetic;
+    private final Metric waitTime;
+    private final Metric timeInSystem;
+
+    public ComparisonSummary(SimulationConfig a, SimulationConfig b, int replications, long customersPerReplication,
+                             boolean commonRandomNumbers, boolean antithetic, Metric waitTime, Metric timeInSystem) {
+        this.a = a;
+        this.b = b;
+        this.replications = replications;
+        this.customersPerReplication = customersPerReplication;
+        this.commonRandomNumbers = commonRandomNumbers;
+        this.antithetic = antithetic;
+        this.waitTime = waitTime;
+        this.timeInSystem = timeInSystem;
+    }
+
+    public Metric getWaitTime() {
+        return waitTime;
+    }
+
+    public Metric getTimeInSystem() {
+        return timeInSystem;
+    }
+
+    /**
+     * Formats the comparison.
+     *
+     * @return Both configurations, the variance reduction used and the compared metrics.
+     */
+    public String formatSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("A: 1/λ = %.4f, 1/μ = %.4f\n", a.getMeanInterarrival(), a.getMeanService()));
+        summary.append(String.format("B: 1/λ = %.4f, 1/μ = %.4f\n", b.getMeanInterarrival(), b.getMeanService()));
+        summary.append(String.format("Replications: %d x %d customers, %s, %s\n", replications, customersPerReplication,
+                commonRandomNumbers ? "common random numbers" : "independent streams",
+                antithetic ? "antithetic pairs" : "no antithetic pairs"));
+        summary.append(String.format("\nComparison (%.0f%% confidence intervals):\n",
+                waitTime.getDifference().getConfidence() * 100));
+        appendMetric(summary, "Average Waiting Time", waitTime);
+        appendMetric(summary, "Average Time in System", timeInSystem);
+        return summary.toString();
+    }
+
+    private static void appendMetric(StringBuilder summary, String name, Metric metric) {
+        summary.append(String.format("%s: A %s, B %s\n", name, metric.getA(), metric.getB()));
+        summary.append(String.format("  B - A: %s, variance of the difference reduced %.1fx\n",
+                metric.getDifference(), metric.getVarianceReduction()));
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Student-t confidence interval for the mean of independent observations.
+ */
+
+public class ConfidenceInterval {
+    private final double mean;
+    private final double halfWidth;
+    private final double confidence;
+    private final long observations;
+
+    public ConfidenceInterval(double mean, double halfWidth, double confidence, long observations) {
+        this.mean = mean;
+        this.halfWidth = halfWidth;
+        this.confidence = confidence;
+        this.observations = observations;
+    }
+
+    /**
+     * Builds the confidence interval of the mean of the accumulated observations.
+     *
+     * @param statistics The observations, e.g. one average per replication.
+     * @param confidence Confidence level, e.g. 0.95.
+     * @return The interval, with an infinite half width if fewer than two observations are available.
+     */
+    public static ConfidenceInterval of(RunningStatistics statistics, double confidence) {
+        long n = statistics.getCount();
+        if (n < 2) {
+            return new ConfidenceInterval(statistics.getMean(), Double.POSITIVE_INFINITY, confidence, n);
+        }
+        double t = studentTQuantile(1 - (1 - confidence) / 2, n - 1);
+        double halfWidth = t * statistics.getStandardDeviation() / Math.sqrt(n);
+        return new ConfidenceInterval(statistics.getMean(), halfWidth, confidence, n);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public double getLower() {
+        return mean - halfWidth;
+    }
+
+    public double getUpper() {
+        return mean + halfWidth;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public long getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return Half width relative to the magnitude of the mean.
+     */
+    public double getRelativePrecision() {
+        return mean == 0 ? Double.POSITIVE_INFINITY : halfWidth / Math.abs(mean);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.4f ± %.4f", mean, halfWidth);
+    }
+
+    /**
+     * Quantile of the Student t distribution. Exact for 1 and 2 degrees of freedom,
+     * Cornish-Fisher expansion around the normal quantile otherwise.
+     *
+     * @param p                Probability, between 0 and 1.
+     * @param degreesOfFreedom Degrees of freedom.
+     * @return The p-quantile.
+     */
+    public static double studentTQuantile(double p, long degreesOfFreedom) {
+        if (degreesOfFreedom == 1) return Math.tan(Math.PI * (p - 0.5));
+        if (degreesOfFreedom == 2) return (2 * p - 1) / Math.sqrt(2 * p * (1 - p));
+        double z = normalQuantile(p);
+        double v = degreesOfFreedom;
+        double z2 = z * z, z3 = z2 * z, z5 = z3 * z2, z7 = z5 * z2, z9 = z7 * z2;
+        return z
+                + (z3 + z) / (4 * v)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * v * v * v)
+                + (79 * z9 + 776 * z7 + 1482 * z5 - 1920 * z3 - 945 * z) / (92160 * v * v * v * v);
+    }
+
+    /**
+     * Quantile of the standard normal distribution (Acklam's rational approximation).
+     *
+     * @param p Probability, between 0 and 1.
+     * @return The p-quantile.
+     */
+    public static double normalQuantile(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                    ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                    ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q /
+                (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
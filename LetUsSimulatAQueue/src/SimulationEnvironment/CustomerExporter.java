@@ -0,0 +1,146 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams the per-customer results of a run to a file through one reusable NIO buffer,
+ * so exporting millions of customers never builds their text in memory. Two formats are written:
+ * <ul>
+ *     <li>CSV (files ending in {@code .csv}): a header and one line per customer with all columns of the
+ *     per-customer table, formatted straight into the buffer without String.format.</li>
+ *     <li>Binary (any other file): an 8-byte header of {@link #BINARY_MAGIC} and {@link #BINARY_VERSION},
+ *     then 32-byte records of four big-endian doubles per customer: arrival time, service time, service start
+ *     and service end. The other columns follow from these. TraceReader recognizes the header and replays
+ *     the arrival and service times of such a file.</li>
+ * </ul>
+ */
+
+public final class CustomerExporter {
+    /**
+     * First four bytes of a binary export, "QCUS".
+     */
+    public static final int BINARY_MAGIC = 0x51435553;
+    public static final int BINARY_VERSION = 1;
+    static final int BINARY_HEADER_SIZE = 2 * Integer.BYTES;
+    static final int BINARY_RECORD_SIZE = 4 * Double.BYTES;
+
+    private static final int BUFFER_SIZE = 1 << 20; // Bytes written to the channel at a time
+    private static final int MAX_LINE_LENGTH = 256; // Room reserved for one CSV line
+    private static final byte[] CSV_HEADER =
+            "customer,arrival,service,service_start,wait,service_end,time_in_system,idle\n".getBytes(StandardCharsets.US_ASCII);
+    private static final long SCALE = 1_000_000;     // Six decimals
+    private static final double MAX_FIXED = 9e12;     // Largest value whose scaled form fits comfortably in a long
+
+    private CustomerExporter() {
+    }
+
+    /**
+     * Exports the customers, choosing the format from the file name.
+     *
+     * @param customers The customers of a detailed run.
+     * @param path      The file to create or replace.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void export(CustomerStore customers, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (path.getFileName().toString().toLowerCase().endsWith(".csv")) {
+                writeCsv(customers, channel);
+            } else {
+                writeBinary(customers, channel);
+            }
+        }
+    }
+
+    /**
+     * Writes the customers as CSV with six decimals.
+     *
+     * @param customers The customers of a detailed run.
+     * @param channel   Receives the text; it is not closed.
+     * @throws IOException If the channel cannot be written.
+     */
+    public static void writeCsv(CustomerStore customers, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.put(CSV_HEADER);
+        for (int i = 0; i < customers.size(); i++) {
+            if (buffer.remaining() < MAX_LINE_LENGTH) drain(buffer, channel);
+            putLong(buffer, customers.getCustomerNumber(i));
+            putColumn(buffer, customers.getArrivalTime(i));
+            putColumn(buffer, customers.getServiceTime(i));
+            putColumn(buffer, customers.getServiceStartTime(i));
+            putColumn(buffer, customers.getWaitTime(i));
+            putColumn(buffer, customers.getServiceEndTime(i));
+            putColumn(buffer, customers.getTimeInSystem(i));
+            putColumn(buffer, customers.getIdleTime(i));
+            buffer.put((byte) '\n');
+        }
+        drain(buffer, channel);
+    }
+
+    /**
+     * Writes the customers as binary records after the header.
+     *
+     * @param customers The customers of a detailed run.
+     * @param channel   Receives the records; it is not closed.
+     * @throws IOException If the channel cannot be written.
+     */
+    public static void writeBinary(CustomerStore customers, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(BINARY_MAGIC);
+        buffer.putInt(BINARY_VERSION);
+        for (int i = 0; i < customers.size(); i++) {
+            if (buffer.remaining() < BINARY_RECORD_SIZE) drain(buffer, channel);
+            buffer.putDouble(customers.getArrivalTime(i));
+            buffer.putDouble(customers.getServiceTime(i));
+            buffer.putDouble(customers.getServiceStartTime(i));
+            buffer.putDouble(customers.getServiceEndTime(i));
+        }
+        drain(buffer, channel);
+    }
+
+    // Writes out everything in the buffer and makes it ready for filling again
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void putColumn(ByteBuffer buffer, double value) {
+        buffer.put((byte) ',');
+        putDecimal(buffer, value);
+    }
+
+    // Writes a value with a fixed number of decimals; only values out of the fixed range fall back to Double.toString
+    private static void putDecimal(ByteBuffer buffer, double value) {
+        if (!(Math.abs(value) < MAX_FIXED)) {
+            buffer.put(Double.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        long scaled = Math.round(Math.abs(value) * SCALE);
+        if (value < 0 && scaled != 0) buffer.put((byte) '-');
+        putLong(buffer, scaled / SCALE);
+        buffer.put((byte) '.');
+        long fraction = scaled % SCALE;
+        for (long divisor = SCALE / 10; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + fraction / divisor % 10));
+        }
+    }
+
+    // Writes the decimal digits of a non-negative number
+    private static void putLong(ByteBuffer buffer, long value) {
+        if (value >= 10) putLong(buffer, value / 10);
+        buffer.put((byte) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Supplies the inter-arrival and service times of successive customers to the single-server
+ * simulation loops, either drawn at random or replayed from a recorded trace.
+ * Times are handed out in batches so the loops never call back per customer.
+ */
+
+@FunctionalInterface
+public interface CustomerSource {
+
+    /**
+     * Writes the times of the next customers into the buffers.
+     * The first customer of a source arrives at time zero, so its inter-arrival time is zero.
+     *
+     * @param interarrivalTimes Receives the time since the previous arrival of each customer.
+     * @param serviceTimes      Receives the service time of each customer.
+     * @param count             Number of customers wanted, at most the length of the buffers.
+     * @return Number of customers written; less than count only when the source is exhausted.
+     */
+    int fill(double[] interarrivalTimes, double[] serviceTimes, int count);
+
+    /**
+     * Writes the position of the source, so that a restored source hands out exactly the customers
+     * this one would have handed out next.
+     *
+     * @param out Receives the state.
+     * @throws IOException                   If the state cannot be written.
+     * @throws UnsupportedOperationException If the source cannot be checkpointed.
+     */
+    default void writeState(DataOutput out) throws IOException {
+        throw new UnsupportedOperationException("This customer source cannot be checkpointed");
+    }
+
+    /**
+     * Moves the source to a position written by {@link #writeState(DataOutput)}.
+     *
+     * @param in Supplies the state.
+     * @throws IOException                   If the state cannot be read.
+     * @throws UnsupportedOperationException If the source cannot be checkpointed.
+     */
+    default void readState(DataInput in) throws IOException {
+        throw new UnsupportedOperationException("This customer source cannot be checkpointed");
+    }
+
+    /**
+     * @param meanInterarrival Mean inter-arrival time (1/λ).
+     * @param meanService      Mean service time (1/μ).
+     * @param random           The random stream to draw from.
+     * @return An endless source of exponential times, as in the M/M/1 model.
+     */
+    static CustomerSource exponential(double meanInterarrival, double meanService, RandomGenerator random) {
+        return new RandomCustomerSource(Distribution.exponential(meanInterarrival), Distribution.exponential(meanService),
+                random);
+    }
+}
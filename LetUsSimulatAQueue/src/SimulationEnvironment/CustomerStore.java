@@ -0,0 +1,147 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * Column-oriented store of the simulated customers.
+ * Each attribute lives in its own primitive array, so a run of n customers costs
+ * four doubles per customer and can be walked by index without allocating objects.
+ * The customer number is implicit: customer i (zero-based) is customer number i + 1.
+ * A read-only view shares the columns of its store without copying them and refuses every change.
+ */
+
+public class CustomerStore {
+    private static final int CHUNK_SIZE = 4096; // Minimum growth step of the columns
+
+    private double[] arrivalTimes = new double[0];
+    private double[] serviceTimes = new double[0];
+    private double[] serviceStartTimes = new double[0];
+    private double[] serviceEndTimes = new double[0];
+    private int size;
+    private final boolean readOnly;
+
+    public CustomerStore() {
+        this.readOnly = false;
+    }
+
+    private CustomerStore(CustomerStore store) {
+        this.arrivalTimes = store.arrivalTimes;
+        this.serviceTimes = store.serviceTimes;
+        this.serviceStartTimes = store.serviceStartTimes;
+        this.serviceEndTimes = store.serviceEndTimes;
+        this.size = store.size;
+        this.readOnly = true;
+    }
+
+    /**
+     * Returns a view of the customers stored so far that cannot be changed. The view shares the
+     * columns of this store, so this store must not be cleared or refilled while the view is in use.
+     *
+     * @return A read-only view of this store, or this store if it is already read-only.
+     */
+    public CustomerStore readOnlyView() {
+        return readOnly ? this : new CustomerStore(this);
+    }
+
+    /**
+     * Makes sure the columns can hold the given number of customers without growing again.
+     *
+     * @param capacity Number of customers to reserve room for.
+     */
+    public void ensureCapacity(int capacity) {
+        checkWritable();
+        if (capacity <= arrivalTimes.length) return;
+        arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+        serviceTimes = Arrays.copyOf(serviceTimes, capacity);
+        serviceStartTimes = Arrays.copyOf(serviceStartTimes, capacity);
+        serviceEndTimes = Arrays.copyOf(serviceEndTimes, capacity);
+    }
+
+    /**
+     * Appends a customer to the store.
+     *
+     * @return The index of the stored customer.
+     */
+    public int add(double arrivalTime, double serviceTime, double serviceStartTime, double serviceEndTime) {
+        checkWritable();
+        if (size == arrivalTimes.length) {
+            // Grow by half the current size, but never by less than one chunk
+            ensureCapacity(size + Math.max(CHUNK_SIZE, size >> 1));
+        }
+        arrivalTimes[size] = arrivalTime;
+        serviceTimes[size] = serviceTime;
+        serviceStartTimes[size] = serviceStartTime;
+        serviceEndTimes[size] = serviceEndTime;
+        return size++;
+    }
+
+    /**
+     * Removes all customers while keeping the allocated columns for the next run.
+     */
+    public void clear() {
+        checkWritable();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCustomerNumber(int index) {
+        return index + 1;
+    }
+
+    public double getArrivalTime(int index) {
+        return arrivalTimes[index];
+    }
+
+    public double getServiceTime(int index) {
+        return serviceTimes[index];
+    }
+
+    public double getServiceStartTime(int index) {
+        return serviceStartTimes[index];
+    }
+
+    public double getServiceEndTime(int index) {
+        return serviceEndTimes[index];
+    }
+
+    public double getWaitTime(int index) {
+        return serviceStartTimes[index] - arrivalTimes[index];
+    }
+
+    public double getTimeInSystem(int index) {
+        return serviceEndTimes[index] - arrivalTimes[index];
+    }
+
+    /**
+     * @return Time the server was idle between the previous customer leaving and this one arriving.
+     */
+    public double getIdleTime(int index) {
+        double previousEnd = index == 0 ? 0 : serviceEndTimes[index - 1];
+        return Math.max(0, arrivalTimes[index] - previousEnd);
+    }
+
+    /**
+     * @return A copy of the arrival time column, trimmed to the stored customers.
+     */
+    public double[] copyArrivalTimes() {
+        return Arrays.copyOf(arrivalTimes, size);
+    }
+
+    /**
+     * @return A copy of the service end time column, trimmed to the stored customers.
+     */
+    public double[] copyServiceEndTimes() {
+        return Arrays.copyOf(serviceEndTimes, size);
+    }
+
+    private void checkWritable() {
+        if (readOnly) throw new UnsupportedOperationException("Customer store is read-only");
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Virtualized table of the simulated customers.
+ * The rows are only indices into the customer store; a cell formats its value when it
+ * scrolls into view, so only the visible rows are ever turned into text, however long the run.
+ */
+
+class CustomerTable {
+    private static final double ROW_HEIGHT = 24; // Fixed, so the table never measures rows it does not show
+
+    private final TableView<Integer> tableView = new TableView<>();
+    private CustomerStore customers;
+
+    CustomerTable() {
+        tableView.setFixedCellSize(ROW_HEIGHT);
+        tableView.setPlaceholder(new Label("Run a single-server simulation that keeps every customer to list them here."));
+        addColumn("C.No.", i -> Integer.toString(customers.getCustomerNumber(i)));
+        addColumn("A.T.", i -> format(customers.getArrivalTime(i)));
+        addColumn("S.T.", i -> format(customers.getServiceTime(i)));
+        addColumn("S.B.", i -> format(customers.getServiceStartTime(i)));
+        addColumn("W.T.", i -> format(customers.getWaitTime(i)));
+        addColumn("S.E.", i -> format(customers.getServiceEndTime(i)));
+        addColumn("T.inS.", i -> format(customers.getTimeInSystem(i)));
+        addColumn("Idle T.", i -> format(customers.getIdleTime(i)));
+    }
+
+    TableView<Integer> getTable() {
+        return tableView;
+    }
+
+    /**
+     * @return The customers listed, or null if the table is empty.
+     */
+    CustomerStore getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Lists the customers of a run.
+     *
+     * @param customers The customers kept by the run.
+     */
+    void show(CustomerStore customers) {
+        this.customers = customers;
+        tableView.setItems(new IndexList(customers.size()));
+        tableView.scrollTo(0);
+    }
+
+    /**
+     * Removes the customers of the previous run.
+     */
+    void clear() {
+        customers = null;
+        tableView.setItems(FXCollections.emptyObservableList());
+    }
+
+    // Adds a read-only column whose cells format their value from the store on demand
+    private void addColumn(String title, IntFunction<String> formatter) {
+        TableColumn<Integer, String> column = new TableColumn<>(title);
+        column.setSortable(false);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(formatter.apply(cell.getValue())));
+        tableView.getColumns().add(column);
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+
+    /**
+     * Row i of the table is customer i; the list holds no elements of its own.
+     */
+    private static class IndexList extends ObservableListBase<Integer> {
+        private final int size;
+
+        IndexList(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return Objects.checkIndex(index, size);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
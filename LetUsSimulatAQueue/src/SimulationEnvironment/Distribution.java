@@ -0,0 +1,90 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of inter-arrival or service times used by the event-driven engine.
+ */
+
+@FunctionalInterface
+public interface Distribution {
+
+    /**
+     * Draws one value from the distribution.
+     *
+     * @param random The random stream to draw from.
+     * @return A non-negative time.
+     */
+    double sample(RandomGenerator random);
+
+    /**
+     * Fills part of a buffer with values of the distribution, so a whole batch of times
+     * can be generated in one tight loop ahead of the simulation loop that consumes it.
+     *
+     * @param random The random stream to draw from.
+     * @param buffer The buffer to fill.
+     * @param from   First index to fill.
+     * @param to     Index after the last one to fill.
+     */
+    default void fill(RandomGenerator random, double[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            buffer[i] = sample(random);
+        }
+    }
+
+    /**
+     * @param mean Mean of the distribution.
+     * @return Exponential times, as in the M/M/* models.
+     */
+    static Distribution exponential(double mean) {
+        return new ExponentialDistribution(mean);
+    }
+
+    /**
+     * Exponential times by inverting a single uniform, slower than the Ziggurat sampler but
+     * monotone in the uniform, which antithetic variates rely on.
+     *
+     * @param mean Mean of the distribution.
+     * @return Exponential times, as in the M/M/* models.
+     */
+    static Distribution exponentialByInversion(double mean) {
+        return random -> -mean * Math.log(1 - random.nextDouble());
+    }
+
+    /**
+     * @param value The constant time.
+     * @return Deterministic times, as in the M/D/* models.
+     */
+    static Distribution deterministic(double value) {
+        return random -> value;
+    }
+
+    /**
+     * @param min Lower bound of the times.
+     * @param max Upper bound of the times.
+     * @return Times spread uniformly between the bounds.
+     */
+    static Distribution uniform(double min, double max) {
+        return random -> min + (max - min) * random.nextDouble();
+    }
+
+    /**
+     * @param phases Number of exponential phases.
+     * @param mean   Mean of the total time.
+     * @return Erlang times made of the given number of exponential phases.
+     */
+    static Distribution erlang(int phases, double mean) {
+        double phaseMean = mean / phases;
+        return random -> {
+            double product = 1;
+            for (int i = 0; i < phases; i++) {
+                product *= 1 - random.nextDouble();
+            }
+            return -phaseMean * Math.log(product);
+        };
+    }
+}
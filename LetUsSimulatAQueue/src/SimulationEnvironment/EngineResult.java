@@ -0,0 +1,165 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Measured performance of a run of the event-driven queueing engine.
+ */
+
+public class EngineResult {
+    private final int servers;
+    private final int capacity;
+    private final long arrivals;
+    private final long lost;
+    private final double simulatedTime;
+    private final double averageInSystem;
+    private final double averageInQueue;
+    private final double utilization;
+    private final RunningStatistics waitTimes;
+    private final RunningStatistics timesInSystem;
+    private final LogHistogram waitTimeHistogram;
+    private final LogHistogram timeInSystemHistogram;
+    private final OccupancyHistogram numberInSystem;
+
+    public EngineResult(int servers, int capacity, long arrivals, long lost, double simulatedTime,
+                        double averageInSystem, double averageInQueue, double utilization,
+                        RunningStatistics waitTimes, RunningStatistics timesInSystem,
+                        LogHistogram waitTimeHistogram, LogHistogram timeInSystemHistogram,
+                        OccupancyHistogram numberInSystem) {
+        this.servers = servers;
+        this.capacity = capacity;
+        this.arrivals = arrivals;
+        this.lost = lost;
+        this.simulatedTime = simulatedTime;
+        this.averageInSystem = averageInSystem;
+        this.averageInQueue = averageInQueue;
+        this.utilization = utilization;
+        this.waitTimes = waitTimes;
+        this.timesInSystem = timesInSystem;
+        this.waitTimeHistogram = waitTimeHistogram;
+        this.timeInSystemHistogram = timeInSystemHistogram;
+        this.numberInSystem = numberInSystem;
+    }
+
+    public int getServers() {
+        return servers;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getLost() {
+        return lost;
+    }
+
+    public long getServed() {
+        return arrivals - lost;
+    }
+
+    /**
+     * @return Time of the last arrival, over which the time averages are taken.
+     */
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    /**
+     * @return Time-average number of customers in the system (L).
+     */
+    public double getL() {
+        return averageInSystem;
+    }
+
+    /**
+     * @return Time-average number of customers waiting in the queue (Lq).
+     */
+    public double getLq() {
+        return averageInQueue;
+    }
+
+    /**
+     * @return Average time a served customer spends in the system (W).
+     */
+    public double getW() {
+        return timesInSystem.getMean();
+    }
+
+    /**
+     * @return Average time a served customer waits in the queue (Wq).
+     */
+    public double getWq() {
+        return waitTimes.getMean();
+    }
+
+    /**
+     * @return Fraction of arriving customers that found the system full.
+     */
+    public double getBlockingProbability() {
+        return arrivals > 0 ? (double) lost / arrivals : 0;
+    }
+
+    /**
+     * @return Rate at which customers enter the system (λ_eff).
+     */
+    public double getEffectiveArrivalRate() {
+        return simulatedTime > 0 ? getServed() / simulatedTime : 0;
+    }
+
+    /**
+     * @return Average fraction of time each server is busy.
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public RunningStatistics getWaitTimes() {
+        return waitTimes;
+    }
+
+    public RunningStatistics getTimesInSystem() {
+        return timesInSystem;
+    }
+
+    public LogHistogram getWaitTimeHistogram() {
+        return waitTimeHistogram;
+    }
+
+    public LogHistogram getTimeInSystemHistogram() {
+        return timeInSystemHistogram;
+    }
+
+    /**
+     * @return Time-weighted distribution of the number in system over the run.
+     */
+    public OccupancyHistogram getNumberInSystem() {
+        return numberInSystem;
+    }
+
+    /**
+     * Formats the measured metrics in the same layout as the analytic models.
+     *
+     * @return The simulated performance metrics.
+     */
+    public String formatSummary() {
+        String model = capacity == QueueSolver.UNLIMITED
+                ? String.format("M/M/%d", servers)
+                : String.format("M/M/%d/%d", servers, capacity);
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Simulated %s Model (%d arrivals, %d lost):\n", model, arrivals, lost));
+        summary.append(String.format("L: %.3f\nLq: %.3f\nW: %.3f\nWq: %.3f\n", getL(), getLq(), getW(), getWq()));
+        summary.append(String.format("Blocking Probability: %.4f\n", getBlockingProbability()));
+        summary.append(String.format("Effective Arrival Rate: %.3f\n", getEffectiveArrivalRate()));
+        summary.append(String.format("Server Utilization: %.2f%%\n", utilization * 100));
+        summary.append(waitTimeHistogram.formatPercentiles("Waiting Time"));
+        summary.append(timeInSystemHistogram.formatPercentiles("Time in System"));
+        summary.append(numberInSystem.formatPercentiles());
+        return summary.toString();
+    }
+}
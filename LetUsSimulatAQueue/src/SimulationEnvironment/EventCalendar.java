@@ -0,0 +1,101 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * Pending-event set of a discrete-event simulation.
+ * Events are kept in a binary min-heap keyed on their time, stored in parallel primitive
+ * arrays so scheduling and removing an event never allocates.
+ */
+
+public class EventCalendar {
+    private double[] times = new double[16];
+    private int[] types = new int[16];
+    private int[] payloads = new int[16];
+    private int size;
+
+    /**
+     * Adds an event to the calendar.
+     *
+     * @param time    Time at which the event occurs.
+     * @param type    Kind of the event, defined by the simulation.
+     * @param payload Extra data of the event, e.g. the server or station index.
+     */
+    public void schedule(double time, int type, int payload) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            types = Arrays.copyOf(types, size * 2);
+            payloads = Arrays.copyOf(payloads, size * 2);
+        }
+        // Sift the new event up from the bottom of the heap
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (times[parent] <= time) break;
+            move(parent, index);
+            index = parent;
+        }
+        times[index] = time;
+        types[index] = type;
+        payloads[index] = payload;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public double peekTime() {
+        return times[0];
+    }
+
+    public int peekType() {
+        return types[0];
+    }
+
+    public int peekPayload() {
+        return payloads[0];
+    }
+
+    /**
+     * Removes the earliest event. Read it with the peek methods first.
+     */
+    public void removeFirst() {
+        size--;
+        if (size == 0) return;
+        double time = times[size];
+        int type = types[size];
+        int payload = payloads[size];
+
+        // Sift the last event down from the top of the heap
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && times[child + 1] < times[child]) child++;
+            if (time <= times[child]) break;
+            move(child, index);
+            index = child;
+        }
+        times[index] = time;
+        types[index] = type;
+        payloads[index] = payload;
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        types[to] = types[from];
+        payloads[to] = payloads[from];
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Exponential times drawn with the Ziggurat sampler instead of logarithmic inversion.
+ */
+
+final class ExponentialDistribution implements Distribution {
+    private final double mean;
+
+    ExponentialDistribution(double mean) {
+        if (!(mean > 0)) throw new IllegalArgumentException("Mean must be positive");
+        this.mean = mean;
+    }
+
+    @Override
+    public double sample(RandomGenerator random) {
+        return mean * ZigguratExponential.next(random);
+    }
+
+    @Override
+    public void fill(RandomGenerator random, double[] buffer, int from, int to) {
+        ZigguratExponential.fill(random, mean, buffer, from, to);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+}
@@ -0,0 +1,310 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of where simulation and analysis time goes: customers simulated, events processed,
+ * bytes allocated and time per phase (generation, simulation, timeline, chart, analysis).
+ * Work is measured in spans opened by the simulation and analysis entry points. A span adds its
+ * figures to the counters when they are enabled ({@code -Dqueue.instrumentation=true} or
+ * setEnabled) and commits a SimulationPhaseEvent when a Flight Recorder recording is running.
+ * With neither, opening a span returns a shared inactive span and closing it does nothing, so
+ * the instrumented paths pay one check per run, never per customer. Allocated bytes are counted
+ * over all threads of the JVM, so they are only exact when one run is measured at a time.
+ */
+
+public final class Instrumentation {
+
+    /**
+     * Phases that time is split across.
+     */
+    public enum Phase {
+        GENERATION("Generation"),
+        SIMULATION("Simulation"),
+        TIMELINE("Timeline"),
+        CHART("Chart"),
+        ANALYSIS("Analysis");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final int PHASES = Phase.values().length;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static volatile boolean enabled = Boolean.getBoolean("queue.instrumentation");
+
+    private static final LongAdder[] calls = new LongAdder[PHASES];
+    private static final LongAdder[] nanos = new LongAdder[PHASES];
+    private static final LongAdder runs = new LongAdder();
+    private static final LongAdder customers = new LongAdder();
+    private static final LongAdder events = new LongAdder();
+    private static final LongAdder allocatedBytes = new LongAdder();
+
+    static {
+        for (int i = 0; i < PHASES; i++) {
+            calls[i] = new LongAdder();
+            nanos[i] = new LongAdder();
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the counters on or off; Flight Recorder events only depend on the running recordings.
+     */
+    public static void setEnabled(boolean enabled) {
+        Instrumentation.enabled = enabled;
+    }
+
+    /**
+     * @return True if spans opened now are measured, for the counters or for a running recording.
+     */
+    public static boolean isActive() {
+        return enabled || new SimulationPhaseEvent().isEnabled();
+    }
+
+    /**
+     * Opens a span of work in the given phase; use it in a try-with-resources statement.
+     *
+     * @param phase The phase the work belongs to.
+     * @return A span that is measured if instrumentation is active, otherwise the shared inactive span.
+     */
+    public static Span start(Phase phase) {
+        if (!enabled) {
+            SimulationPhaseEvent event = new SimulationPhaseEvent();
+            if (!event.isEnabled()) return Span.INACTIVE;
+        }
+        return new Span(phase);
+    }
+
+    /**
+     * Clears all counters.
+     */
+    public static void reset() {
+        for (int i = 0; i < PHASES; i++) {
+            calls[i].reset();
+            nanos[i].reset();
+        }
+        runs.reset();
+        customers.reset();
+        events.reset();
+        allocatedBytes.reset();
+    }
+
+    /**
+     * @return Number of spans that spent time in the phase.
+     */
+    public static long getCalls(Phase phase) {
+        return calls[phase.ordinal()].sum();
+    }
+
+    /**
+     * @return Time spent in the phase, in nanoseconds.
+     */
+    public static long getNanos(Phase phase) {
+        return nanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * @return Number of simulation runs measured.
+     */
+    public static long getRuns() {
+        return runs.sum();
+    }
+
+    public static long getCustomers() {
+        return customers.sum();
+    }
+
+    /**
+     * @return Number of arrival and departure events processed.
+     */
+    public static long getEvents() {
+        return events.sum();
+    }
+
+    /**
+     * Allocation is read from the whole JVM, not from the measured run: spans that overlap, such as
+     * concurrent jobs of the job service, are each charged with the allocation of the others, and a
+     * thread that ends while a span is open takes its allocation out of that span.
+     *
+     * @return Heap allocated by all threads during the measured spans, or 0 if the JVM cannot tell.
+     */
+    public static long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * @return Events per second of generation and simulation time.
+     */
+    public static double getEventsPerSecond() {
+        long time = getNanos(Phase.GENERATION) + getNanos(Phase.SIMULATION);
+        return time > 0 ? getEvents() * 1e9 / time : 0;
+    }
+
+    /**
+     * Formats the counters collected so far.
+     *
+     * @return The totals and the time of every phase with its share.
+     */
+    public static String format() {
+        StringBuilder report = new StringBuilder("Instrumentation:\n");
+        long runCount = getRuns();
+        report.append(String.format("Runs: %d, Customers: %d, Events: %d\n", runCount, getCustomers(), getEvents()));
+        report.append(String.format("Events per Second: %.0f\n", getEventsPerSecond()));
+        report.append(String.format("Allocated: %.1f MB (%.1f MB per run)\n", getAllocatedBytes() / 1e6,
+                runCount > 0 ? getAllocatedBytes() / 1e6 / runCount : 0));
+
+        long total = 0;
+        for (Phase phase : Phase.values()) {
+            total += getNanos(phase);
+        }
+        report.append("Phase        Calls    Time (ms)    Share\n");
+        for (Phase phase : Phase.values()) {
+            long time = getNanos(phase);
+            report.append(String.format("%-12s %-8d %-12.1f %.1f%%\n", phase.getLabel(), getCalls(phase), time / 1e6,
+                    total > 0 ? 100.0 * time / total : 0));
+        }
+        return report.toString();
+    }
+
+    // Heap allocated so far by the threads alive now, or 0 if the JVM does not track it
+    private static long allocatedSoFar() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) return 0;
+        long total = 0;
+        for (long bytes : ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            // -1 for a thread that ended after its id was taken, or if allocation tracking is off
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    /**
+     * Work in one phase. Parts of the work that belong to other phases, such as generating the
+     * times of a run, are split off so every nanosecond is counted in exactly one phase.
+     */
+    public static final class Span implements AutoCloseable {
+        static final Span INACTIVE = new Span();
+
+        private final Phase phase;
+        private final long start;
+        private final long startBytes;
+        private final SimulationPhaseEvent event;
+        private final long[] split;
+        private long customers;
+        private long events;
+
+        private Span() {
+            phase = null;
+            start = 0;
+            startBytes = 0;
+            event = null;
+            split = null;
+        }
+
+        private Span(Phase phase) {
+            this.phase = phase;
+            this.split = new long[PHASES];
+            SimulationPhaseEvent event = new SimulationPhaseEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                this.event = event;
+            } else {
+                this.event = null;
+            }
+            this.startBytes = allocatedSoFar();
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * @return False for the inactive span, whose methods do nothing.
+         */
+        public boolean isActive() {
+            return phase != null;
+        }
+
+        /**
+         * Adds to the customers simulated and events processed in this span.
+         */
+        public void count(long customers, long events) {
+            if (phase == null) return;
+            this.customers += customers;
+            this.events += events;
+        }
+
+        /**
+         * Moves part of the time of this span to another phase.
+         *
+         * @param other The phase the time belongs to.
+         * @param time  Time in nanoseconds.
+         */
+        public void split(Phase other, long time) {
+            if (phase == null) return;
+            split[other.ordinal()] += time;
+        }
+
+        @Override
+        public void close() {
+            if (phase == null) return;
+            long elapsed = System.nanoTime() - start;
+            long allocated = Math.max(0, allocatedSoFar() - startBytes);
+            long own = elapsed;
+            for (long time : split) {
+                own -= time;
+            }
+
+            if (enabled) {
+                record(phase, own);
+                for (Phase other : Phase.values()) {
+                    if (split[other.ordinal()] > 0) record(other, split[other.ordinal()]);
+                }
+                if (phase == Phase.SIMULATION) runs.increment();
+                Instrumentation.customers.add(customers);
+                Instrumentation.events.add(events);
+                allocatedBytes.add(allocated);
+            }
+
+            if (event != null && event.shouldCommit()) {
+                event.end();
+                event.phase = phase.getLabel();
+                event.elapsed = own;
+                event.customers = customers;
+                event.events = events;
+                event.eventsPerSecond = elapsed > 0 ? events * 1e9 / elapsed : 0;
+                event.allocated = allocated;
+                event.commit();
+                for (Phase other : Phase.values()) {
+                    if (split[other.ordinal()] == 0) continue;
+                    SimulationPhaseEvent part = new SimulationPhaseEvent();
+                    part.phase = other.getLabel();
+                    part.elapsed = split[other.ordinal()];
+                    part.commit();
+                }
+            }
+        }
+
+        private static void record(Phase phase, long time) {
+            calls[phase.ordinal()].increment();
+            nanos[phase.ordinal()].add(time);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open Jackson network: M/M/c stations with Poisson arrivals from outside and probabilistic
+ * routing. A customer leaving station i moves to station j with probability R[i][j] and leaves
+ * the network with the remaining probability 1 - Σj R[i][j].
+ * In steady state each station behaves like an independent M/M/c queue fed at the total rate
+ * λi of the traffic equations λ = γ + λR (product form), which gives the analytic check of a simulation.
+ */
+
+public final class JacksonNetwork {
+    private static final double ROUNDING = 1e-9; // Slack allowed on routing probabilities that should sum to one
+
+    private final int[] servers;
+    private final double[] serviceRates;
+    private final double[] externalRates;
+    private final double[][] routing;
+
+    /**
+     * @param servers       Number of servers of each station.
+     * @param serviceRates  Service rate of each server of each station (μi).
+     * @param externalRates Rate of arrivals from outside to each station (γi).
+     * @param routing       Routing probabilities R[i][j]; each row sums to at most one.
+     * @throws IllegalArgumentException If the parameters do not describe an open network.
+     */
+    public JacksonNetwork(int[] servers, double[] serviceRates, double[] externalRates, double[][] routing) {
+        int stations = servers.length;
+        if (stations == 0) throw new IllegalArgumentException("Network needs at least one station");
+        if (serviceRates.length != stations || externalRates.length != stations || routing.length != stations) {
+            throw new IllegalArgumentException("Every station needs servers, a service rate, an arrival rate and a routing row");
+        }
+        double totalExternal = 0;
+        for (int i = 0; i < stations; i++) {
+            if (servers[i] <= 0 || !(serviceRates[i] > 0) || !(externalRates[i] >= 0)) {
+                throw new IllegalArgumentException("Station " + (i + 1) + " needs servers, a positive service rate and a non-negative arrival rate");
+            }
+            if (routing[i].length != stations) throw new IllegalArgumentException("Routing row " + (i + 1) + " has the wrong length");
+            double rowSum = 0;
+            for (double p : routing[i]) {
+                if (!(p >= 0)) throw new IllegalArgumentException("Routing probabilities must not be negative");
+                rowSum += p;
+            }
+            if (rowSum > 1 + ROUNDING) throw new IllegalArgumentException("Routing probabilities of station " + (i + 1) + " exceed one");
+            totalExternal += externalRates[i];
+        }
+        if (!(totalExternal > 0)) throw new IllegalArgumentException("Network needs arrivals from outside");
+        this.servers = servers.clone();
+        this.serviceRates = serviceRates.clone();
+        this.externalRates = externalRates.clone();
+        this.routing = new double[stations][];
+        for (int i = 0; i < stations; i++) {
+            this.routing[i] = routing[i].clone();
+        }
+        getArrivalRates(); // Rejects networks that customers can never leave
+    }
+
+    /**
+     * Builds a pipeline of identical stations that every customer passes through in order.
+     *
+     * @param stations Number of stations.
+     * @param lambda   Arrival rate at the first station (λ).
+     * @param mu       Service rate of each server (μ).
+     * @param c        Number of servers of each station.
+     * @return The tandem network.
+     */
+    public static JacksonNetwork tandem(int stations, double lambda, double mu, int c) {
+        if (stations <= 0) throw new IllegalArgumentException("Network needs at least one station");
+        int[] servers = new int[stations];
+        double[] serviceRates = new double[stations];
+        double[] externalRates = new double[stations];
+        double[][] routing = new double[stations][stations];
+        for (int i = 0; i < stations; i++) {
+            servers[i] = c;
+            serviceRates[i] = mu;
+            if (i + 1 < stations) routing[i][i + 1] = 1;
+        }
+        externalRates[0] = lambda;
+        return new JacksonNetwork(servers, serviceRates, externalRates, routing);
+    }
+
+    /**
+     * Reads a network from a text file with one entry per line:
+     * <pre>
+     * station &lt;servers&gt; &lt;service rate&gt; &lt;external arrival rate&gt;
+     * route &lt;from&gt; &lt;to&gt; &lt;probability&gt;
+     * </pre>
+     * Stations are numbered from 1 in the order they are declared; blank lines and lines starting with # are ignored.
+     *
+     * @param path The network file.
+     * @return The network.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If a line is malformed or the network is not open.
+     */
+    public static JacksonNetwork read(Path path) throws IOException {
+        List<double[]> stations = new ArrayList<>();
+        List<double[]> routes = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path)) {
+            lineNumber++;
+            String[] fields = line.trim().split("\\s+");
+            if (fields[0].isEmpty() || fields[0].startsWith("#")) continue;
+            try {
+                if (fields[0].equals("station") && fields.length == 4) {
+                    stations.add(new double[]{Integer.parseInt(fields[1]), Double.parseDouble(fields[2]), Double.parseDouble(fields[3])});
+                } else if (fields[0].equals("route") && fields.length == 4) {
+                    routes.add(new double[]{Integer.parseInt(fields[1]) - 1, Integer.parseInt(fields[2]) - 1, Double.parseDouble(fields[3])});
+                } else {
+                    throw new IllegalArgumentException("Malformed network line " + lineNumber);
+                }
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Malformed network line " + lineNumber);
+            }
+        }
+
+        int n = stations.size();
+        int[] servers = new int[n];
+        double[] serviceRates = new double[n];
+        double[] externalRates = new double[n];
+        double[][] routing = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            servers[i] = (int) stations.get(i)[0];
+            serviceRates[i] = stations.get(i)[1];
+            externalRates[i] = stations.get(i)[2];
+        }
+        for (double[] route : routes) {
+            int from = (int) route[0], to = (int) route[1];
+            if (from < 0 || from >= n || to < 0 || to >= n) throw new IllegalArgumentException("Route refers to an unknown station");
+            routing[from][to] += route[2];
+        }
+        return new JacksonNetwork(servers, serviceRates, externalRates, routing);
+    }
+
+    public int getStations() {
+        return servers.length;
+    }
+
+    public int getServers(int station) {
+        return servers[station];
+    }
+
+    public double getServiceRate(int station) {
+        return serviceRates[station];
+    }
+
+    public double getExternalRate(int station) {
+        return externalRates[station];
+    }
+
+    public double getRouting(int from, int to) {
+        return routing[from][to];
+    }
+
+    /**
+     * @return Probability that a customer leaves the network after the given station.
+     */
+    public double getExitProbability(int station) {
+        double stay = 0;
+        for (double p : routing[station]) {
+            stay += p;
+        }
+        return Math.max(0, 1 - stay);
+    }
+
+    /**
+     * @return Total rate of arrivals from outside (Σγi), which is also the throughput of a stable network.
+     */
+    public double getTotalExternalRate() {
+        double total = 0;
+        for (double rate : externalRates) {
+            total += rate;
+        }
+        return total;
+    }
+
+    /**
+     * Solves the traffic equations λ = γ + λR, i.e. (I - Rᵀ) λ = γ, by Gaussian elimination with partial pivoting.
+     *
+     * @return Total arrival rate of each station (λi).
+     * @throws IllegalArgumentException If customers can be trapped in the network forever.
+     */
+    public double[] getArrivalRates() {
+        int n = servers.length;
+        double[][] a = new double[n][n + 1];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = (i == j ? 1 : 0) - routing[j][i];
+            }
+            a[i][n] = externalRates[i];
+        }
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < n; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) pivot = row;
+            }
+            if (Math.abs(a[pivot][col]) < ROUNDING) {
+                throw new IllegalArgumentException("Customers can never leave part of the network");
+            }
+            double[] swap = a[col];
+            a[col] = a[pivot];
+            a[pivot] = swap;
+            for (int row = col + 1; row < n; row++) {
+                double factor = a[row][col] / a[col][col];
+                if (factor == 0) continue;
+                for (int j = col; j <= n; j++) {
+                    a[row][j] -= factor * a[col][j];
+                }
+            }
+        }
+        double[] lambda = new double[n];
+        for (int row = n - 1; row >= 0; row--) {
+            double value = a[row][n];
+            for (int j = row + 1; j < n; j++) {
+                value -= a[row][j] * lambda[j];
+            }
+            lambda[row] = value / a[row][row];
+            if (lambda[row] < -ROUNDING) {
+                throw new IllegalArgumentException("Customers can never leave part of the network");
+            }
+            lambda[row] = Math.max(0, lambda[row]);
+        }
+        return lambda;
+    }
+
+    /**
+     * Product-form solution: every station as an M/M/c queue at its rate from the traffic equations.
+     *
+     * @return The steady-state metrics of each station; those of an overloaded station are infinite.
+     */
+    public QueueMetrics[] solveStations() {
+        double[] lambda = getArrivalRates();
+        QueueMetrics[] metrics = new QueueMetrics[servers.length];
+        for (int i = 0; i < servers.length; i++) {
+            metrics[i] = QueueSolver.mmc(lambda[i], serviceRates[i], servers[i]);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,469 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local HTTP/JSON service that runs analyses and simulations for other programs, bound to the
+ * loopback address only. Every request is handled on its own virtual thread; a semaphore bounds
+ * the jobs that compute at the same time and turns requests away with 503 once none frees up
+ * within a short wait, so bursts cannot pile up unbounded work. Results are kept in an LRU cache
+ * keyed on the endpoint and its normalized parameters, including the seed of a simulation, so a
+ * repeated request is answered from memory and concurrent identical requests share one job.
+ *
+ * <pre>
+ * GET  /mm1?lambda=0.9&amp;mu=1
+ * POST /mmck       {"lambda": 9, "mu": 1, "servers": 10, "capacity": 20}
+ * POST /simulate   {"interarrival": 1, "service": 0.9, "customers": 1000000, "seed": 42}
+ * GET  /stats
+ * </pre>
+ * Simulations take the options of {@code QueueCli simulate} (servers, capacity, replications, precision);
+ * a simulation without a seed draws a new one and is not cached. Simulations larger than
+ * MAX_CUSTOMERS customers or MAX_REPLICATIONS replications are refused with 400.
+ */
+
+public class JobService {
+    private static final long QUEUE_WAIT_MILLIS = 100; // Longest wait for a free job slot before answering 503
+    // Largest simulation one request may ask for, so a single job cannot hold a slot for minutes
+    private static final long MAX_CUSTOMERS = 10_000_000;
+    private static final int MAX_REPLICATIONS = 100;
+    private static final long MAX_TOTAL_CUSTOMERS = 100_000_000;
+
+    // Parameters of each endpoint, with the defaults used when a parameter is left out
+    private static final Map<String, List<String>> PARAMETERS = Map.of(
+            "mm1", List.of("lambda", "mu"),
+            "mm1k", List.of("lambda", "mu", "capacity"),
+            "mmc", List.of("lambda", "mu", "servers"),
+            "mmck", List.of("lambda", "mu", "servers", "capacity"),
+            "simulate", List.of("interarrival", "service", "customers", "servers", "capacity", "replications",
+                    "precision", "seed"));
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "servers", "1",
+            "replications", "1",
+            "precision", "0.0");
+
+    static {
+        // Small responses go out in two writes, headers then body; without TCP_NODELAY the second
+        // waits for the client's delayed ACK and every request takes tens of milliseconds
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int maxConcurrent;
+    private final Semaphore slots;
+    private final ResultCache cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param port          Port on the loopback address, 0 for any free port.
+     * @param maxConcurrent Number of jobs that may compute at the same time.
+     * @param cacheSize     Number of results kept in the cache.
+     * @throws IOException If the port cannot be bound.
+     */
+    public JobService(int port, int maxConcurrent, int cacheSize) throws IOException {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("Number of concurrent jobs must be positive");
+        this.maxConcurrent = maxConcurrent;
+        this.slots = new Semaphore(maxConcurrent);
+        this.cache = new ResultCache(cacheSize);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to the given delay for those in progress.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String endpoint = exchange.getRequestURI().getPath().substring(1);
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("POST")) {
+                respond(exchange, 405, error("Use GET with query parameters or POST with a JSON object"));
+                return;
+            }
+            if (endpoint.equals("stats")) {
+                respond(exchange, 200, stats());
+                return;
+            }
+            if (!PARAMETERS.containsKey(endpoint)) {
+                respond(exchange, 404, error("Unknown endpoint /" + endpoint));
+                return;
+            }
+
+            Map<String, String> parameters;
+            try {
+                parameters = normalize(endpoint, method.equals("POST")
+                        ? parseJson(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                        : parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException ex) {
+                respond(exchange, 400, error(ex.getMessage()));
+                return;
+            }
+
+            // A simulation without a seed is a fresh random run, so it is neither cached nor shared
+            boolean cacheable = !endpoint.equals("simulate") || parameters.containsKey("seed");
+            if (!cacheable) parameters.put("seed", String.valueOf(System.nanoTime()));
+            String key = endpoint + parameters;
+
+            CompletableFuture<String> job = new CompletableFuture<>();
+            CompletableFuture<String> existing = cacheable ? cache.getOrRegister(key, job) : null;
+            if (existing != null) {
+                hits.increment();
+                job = existing;
+            } else {
+                misses.increment();
+                run(endpoint, parameters, key, job, cacheable);
+            }
+
+            try {
+                respond(exchange, 200, job.join());
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof BusyException) {
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    respond(exchange, 503, error(cause.getMessage()));
+                } else if (cause instanceof IllegalArgumentException) {
+                    respond(exchange, 400, error(cause.getMessage()));
+                } else {
+                    respond(exchange, 500, error(String.valueOf(cause)));
+                }
+            }
+        }
+    }
+
+    // Computes a job on the calling thread once a slot is free, or fails it if none frees up in time
+    private void run(String endpoint, Map<String, String> parameters, String key, CompletableFuture<String> job,
+                     boolean cacheable) {
+        try {
+            if (!slots.tryAcquire(QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new BusyException();
+            }
+            try {
+                job.complete(compute(endpoint, parameters));
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.completeExceptionally(ex);
+        } catch (RuntimeException | Error ex) {
+            // Errors fail the job as well, or every later request for it would wait forever
+            job.completeExceptionally(ex);
+        }
+        // Failed jobs are forgotten so the next request tries again
+        if (cacheable && job.isCompletedExceptionally()) cache.remove(key, job);
+    }
+
+    private static String compute(String endpoint, Map<String, String> parameters) {
+        if (endpoint.equals("simulate")) {
+            SimulationConfig config = new SimulationConfig(
+                    Double.parseDouble(parameters.get("interarrival")),
+                    Double.parseDouble(parameters.get("service")),
+                    Long.parseLong(parameters.get("customers")),
+                    Integer.parseInt(parameters.get("servers")),
+                    parameters.containsKey("capacity") ? Integer.parseInt(parameters.get("capacity")) : QueueSolver.UNLIMITED,
+                    Integer.parseInt(parameters.get("replications")),
+                    false,
+                    Long.parseLong(parameters.get("seed")))
+                    .withRelativePrecision(Double.parseDouble(parameters.get("precision")));
+            SimulationResult result = new QueueSimulator().run(config, ProgressMonitor.NONE);
+            StringBuilder json = new StringBuilder("{");
+            field(json, "seed", config.getSeed());
+            field(json, "averageWaitTime", result.getAverageWaitTime());
+            field(json, "averageTimeInSystem", result.getAverageTimeInSystem());
+            field(json, "serverUtilization", result.getServerUtilization());
+            field(json, "report", result.getReport());
+            return json.append('}').toString();
+        }
+
+        double lambda = Double.parseDouble(parameters.get("lambda"));
+        double mu = Double.parseDouble(parameters.get("mu"));
+        int servers = Integer.parseInt(parameters.get("servers"));
+        int capacity = parameters.containsKey("capacity") ? Integer.parseInt(parameters.get("capacity")) : QueueSolver.UNLIMITED;
+        QueueMetrics metrics = QueueSolver.solve(lambda, mu, servers, capacity);
+        StringBuilder json = new StringBuilder("{");
+        field(json, "lambda", metrics.getLambda());
+        field(json, "mu", metrics.getMu());
+        field(json, "servers", metrics.getServers());
+        if (capacity != QueueSolver.UNLIMITED) field(json, "capacity", capacity);
+        field(json, "rho", metrics.getRho());
+        field(json, "stable", metrics.isStable());
+        field(json, "p0", metrics.getP0());
+        field(json, "pk", metrics.getPk());
+        field(json, "l", metrics.getL());
+        field(json, "lq", metrics.getLq());
+        field(json, "w", metrics.getW());
+        field(json, "wq", metrics.getWq());
+        field(json, "lambdaEff", metrics.getLambdaEff());
+        return json.append('}').toString();
+    }
+
+    /**
+     * Checks the parameters of an endpoint, fills in the defaults and writes every number in one
+     * canonical form, so requests that mean the same model map to the same cache key.
+     *
+     * @return The parameters, sorted by name.
+     */
+    private static Map<String, String> normalize(String endpoint, Map<String, String> raw) {
+        List<String> names = PARAMETERS.get(endpoint);
+        for (String name : raw.keySet()) {
+            if (!names.contains(name)) throw new IllegalArgumentException("Unknown parameter " + name);
+        }
+        Map<String, String> parameters = new TreeMap<>();
+        for (String name : names) {
+            String value = raw.getOrDefault(name, DEFAULTS.get(name));
+            if (value == null) {
+                if (name.equals("seed") || (name.equals("capacity") && endpoint.equals("simulate"))) continue;
+                throw new IllegalArgumentException("Missing parameter " + name);
+            }
+            try {
+                parameters.put(name, switch (name) {
+                    case "servers", "capacity", "replications" -> String.valueOf(Integer.parseInt(value));
+                    case "customers", "seed" -> String.valueOf(Long.parseLong(value));
+                    default -> String.valueOf(checkNumber(name, Double.parseDouble(value)));
+                });
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Parameter " + name + " is not a valid number");
+            }
+        }
+        if (endpoint.equals("simulate")) {
+            long customers = Long.parseLong(parameters.get("customers"));
+            int replications = Integer.parseInt(parameters.get("replications"));
+            if (customers > MAX_CUSTOMERS) {
+                throw new IllegalArgumentException("At most " + MAX_CUSTOMERS + " customers per request");
+            }
+            if (replications > MAX_REPLICATIONS) {
+                throw new IllegalArgumentException("At most " + MAX_REPLICATIONS + " replications per request");
+            }
+            if (customers * replications > MAX_TOTAL_CUSTOMERS) {
+                throw new IllegalArgumentException("At most " + MAX_TOTAL_CUSTOMERS + " customers over all replications");
+            }
+        }
+        if (endpoint.startsWith("mm1")) parameters.put("servers", "1");
+        return parameters;
+    }
+
+    // Rates and times must be finite and positive, the precision finite and not negative; -0.0 becomes 0.0
+    private static double checkNumber(String name, double value) {
+        if (name.equals("precision")) {
+            if (!(value >= 0) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("Parameter precision must be a finite number of at least 0");
+            }
+            return value + 0.0;
+        }
+        if (!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a finite positive number");
+        }
+        return value;
+    }
+
+    private String stats() {
+        StringBuilder json = new StringBuilder("{");
+        field(json, "cached", cache.size());
+        field(json, "hits", hits.sum());
+        field(json, "misses", misses.sum());
+        field(json, "rejected", rejected.sum());
+        field(json, "running", maxConcurrent - slots.availablePermits());
+        field(json, "waiting", slots.getQueueLength());
+        return json.append('}').toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // "name=value" pairs of a query string
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new TreeMap<>();
+        if (query == null || query.isEmpty()) return parameters;
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals <= 0) throw new IllegalArgumentException("Malformed query parameter " + pair);
+            parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Reads a flat JSON object whose values are numbers, strings, booleans or null.
+     * Nested objects and arrays are rejected; the values are returned as written.
+     */
+    private static Map<String, String> parseJson(String text) {
+        Map<String, String> parameters = new TreeMap<>();
+        int[] position = {skipSpace(text, 0)};
+        expect(text, position, '{');
+        if (peek(text, position) == '}') {
+            position[0]++;
+        } else {
+            while (true) {
+                String name = readString(text, position);
+                expect(text, position, ':');
+                String value = peek(text, position) == '"' ? readString(text, position) : readLiteral(text, position);
+                if (value != null) parameters.put(name, value);
+                if (peek(text, position) == ',') {
+                    position[0]++;
+                    continue;
+                }
+                expect(text, position, '}');
+                break;
+            }
+        }
+        if (skipSpace(text, position[0]) != text.length()) throw new IllegalArgumentException("Malformed JSON body");
+        return parameters;
+    }
+
+    private static char peek(String text, int[] position) {
+        position[0] = skipSpace(text, position[0]);
+        if (position[0] >= text.length()) throw new IllegalArgumentException("Malformed JSON body");
+        return text.charAt(position[0]);
+    }
+
+    private static void expect(String text, int[] position, char expected) {
+        if (peek(text, position) != expected) throw new IllegalArgumentException("Malformed JSON body");
+        position[0]++;
+    }
+
+    private static String readString(String text, int[] position) {
+        expect(text, position, '"');
+        StringBuilder value = new StringBuilder();
+        for (int i = position[0]; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                position[0] = i + 1;
+                return value.toString();
+            }
+            if (c == '\\') {
+                if (++i >= text.length()) break;
+                char escaped = text.charAt(i);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 't' -> value.append('\t');
+                    case 'r' -> value.append('\r');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'u' -> {
+                        if (i + 4 >= text.length()) throw new IllegalArgumentException("Malformed JSON body");
+                        value.append((char) Integer.parseInt(text.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    default -> value.append(escaped);
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        throw new IllegalArgumentException("Malformed JSON body");
+    }
+
+    // A number, true, false or null, which gives no value
+    private static String readLiteral(String text, int[] position) {
+        int start = position[0];
+        int end = start;
+        while (end < text.length() && "{}[]\",:".indexOf(text.charAt(end)) < 0 && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        if (end == start) throw new IllegalArgumentException("Malformed JSON body");
+        position[0] = end;
+        String literal = text.substring(start, end);
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static int skipSpace(String text, int position) {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static String error(String message) {
+        StringBuilder json = new StringBuilder("{");
+        field(json, "error", message);
+        return json.append('}').toString();
+    }
+
+    // Appends a member to a JSON object under construction; infinite and undefined numbers become null
+    private static void field(StringBuilder json, String name, Object value) {
+        if (json.length() > 1) json.append(',');
+        json.append('"').append(name).append("\":");
+        if (value instanceof Double number) {
+            json.append(Double.isFinite(number) ? number.toString() : "null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            json.append('"');
+            String text = String.valueOf(value);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> json.append("\\\"");
+                    case '\\' -> json.append("\\\\");
+                    case '\n' -> json.append("\\n");
+                    case '\r' -> json.append("\\r");
+                    case '\t' -> json.append("\\t");
+                    default -> {
+                        if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                        else json.append(c);
+                    }
+                }
+            }
+            json.append('"');
+        }
+    }
+
+    /**
+     * A job turned away because every slot stayed busy.
+     */
+    private static final class BusyException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BusyException() {
+            super("All job slots are busy, try again shortly");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of non-negative times with log-linear buckets, in the style of HdrHistogram.
+ * Every power of two between 2^-32 and 2^32 is split into 128 equal buckets, so a percentile is
+ * known to within 0.4% of its value whatever the scale of the times. The bucket of a value comes
+ * straight from the exponent and the top mantissa bits of its double, so recording costs O(1)
+ * without allocating, and histograms of separate runs merge by adding their counts.
+ */
+
+public class LogHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // Buckets per power of two
+    private static final int MIN_EXPONENT = -32;                 // Values below 2^-32 count as zero
+    private static final int MAX_EXPONENT = 32;                  // Values from 2^32 up share the top bucket
+    private static final int BUCKETS = (MAX_EXPONENT - MIN_EXPONENT) * SUB_BUCKETS;
+    private static final double SMALLEST = Math.scalb(1.0, MIN_EXPONENT);
+
+    private final long[] counts = new long[BUCKETS];
+    private long zeroCount;
+    private long totalCount;
+    private double max;
+
+    /**
+     * Records one observation.
+     *
+     * @param value The observed time; negative values and values below 2^-32 count as zero.
+     */
+    public void record(double value) {
+        if (value >= SMALLEST) {
+            counts[index(value)]++;
+            if (value > max) max = value;
+        } else {
+            zeroCount++;
+        }
+        totalCount++;
+    }
+
+    /**
+     * Adds the observations of another histogram to this one.
+     *
+     * @param other The histogram to merge.
+     */
+    public void merge(LogHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        zeroCount += other.zeroCount;
+        totalCount += other.totalCount;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Forgets all observations.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        zeroCount = 0;
+        totalCount = 0;
+        max = 0;
+    }
+
+    /**
+     * Writes the exact state of the histogram, e.g. to a checkpoint.
+     * Only the buckets that hold observations are written, so a typical histogram takes a few kilobytes.
+     *
+     * @param out Receives the state.
+     * @throws IOException If the state cannot be written.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        int used = 0;
+        for (long count : counts) {
+            if (count != 0) used++;
+        }
+        out.writeInt(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+        out.writeLong(zeroCount);
+        out.writeLong(totalCount);
+        out.writeDouble(max);
+    }
+
+    /**
+     * Replaces the histogram with a state written by {@link #writeState(DataOutput)}.
+     *
+     * @param in Supplies the state.
+     * @throws IOException If the state cannot be read.
+     */
+    public void readState(DataInput in) throws IOException {
+        clear();
+        int used = in.readInt();
+        for (int i = 0; i < used; i++) {
+            counts[in.readUnsignedShort()] = in.readLong();
+        }
+        zeroCount = in.readLong();
+        totalCount = in.readLong();
+        max = in.readDouble();
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100.
+     * @return The smallest value that at least the given share of the observations do not exceed,
+     * as the midpoint of its bucket, or 0 if nothing was recorded.
+     */
+    public double getPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulative = zeroCount;
+        if (cumulative >= rank) return 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(lowerBound(i) + bucketWidth(i) / 2, max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Formats the usual service-level percentiles.
+     *
+     * @param name Name of the measured time, e.g. "Waiting Time".
+     * @return One line with p50, p95, p99 and the maximum.
+     */
+    public String formatPercentiles(String name) {
+        return String.format("%s Percentiles: p50 %.4f, p95 %.4f, p99 %.4f, max %.4f\n",
+                name, getPercentile(50), getPercentile(95), getPercentile(99), max);
+    }
+
+    // Bucket of a value of at least 2^-32
+    private static int index(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int exponent = (int) (bits >>> 52) - 1023;
+        if (exponent >= MAX_EXPONENT) return BUCKETS - 1;
+        int subBucket = (int) (bits >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - MIN_EXPONENT) << SUB_BUCKET_BITS) | subBucket;
+    }
+
+    private static double lowerBound(int index) {
+        int exponent = (index >>> SUB_BUCKET_BITS) + MIN_EXPONENT;
+        return Math.scalb(1 + (index & (SUB_BUCKETS - 1)) / (double) SUB_BUCKETS, exponent);
+    }
+
+    private static double bucketWidth(int index) {
+        return Math.scalb(1.0 / SUB_BUCKETS, (index >>> SUB_BUCKET_BITS) + MIN_EXPONENT);
+    }
+}
@@ -5,22 +5,23 @@
 package SimulationEnvironment;
 
 
-import javafx.scene.chart.LineChart;
-import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.XYChart;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
-import java.util.*;
+import javafx.stage.FileChooser;
+import java.io.File;
+import java.io.IOException;
 
 /**
- * Provides GUI and logic for simulating an M/M/1 queueing system.
+ * Provides the GUI for simulating queueing systems; the simulations themselves run on QueueSimulator.
  */
 
 public class MM1Simulation {
     /**
      * Creates the GUI pane for M/M/1 simulation.
-     * @return A BorderPane containing input fields, results, and a chart.
+     * @return A BorderPane containing input fields, results, a chart and the per-customer table.
      */
     public static BorderPane createSimulateQueuePane() {
         // Inputs for inter-arrival time, service time, and number of customers
@@ -30,6 +31,17 @@ public class MM1Simulation {
         TextField meanServiceField = new TextField();
         Label numCustomersLabel = new Label("Number of Customers:");
         TextField numCustomersField = new TextField();
+        Label replicationsLabel = new Label("Replications (optional):");
+        TextField replicationsField = new TextField();
+        Label serversLabel = new Label("Number of servers (c):");
+        TextField serversField = new TextField();
+        Label capacityLabel = new Label("System capacity (K):");
+        TextField capacityField = new TextField();
+        Label precisionLabel = new Label("Target precision, e.g. 0.05 (optional):");
+        TextField precisionField = new TextField();
+
+        // Option to keep only summary accumulators instead of every customer
+        CheckBox streamingCheckBox = new CheckBox("Summary only (constant memory)");
 
         // Button to start the simulation
         Button simulateButton = new Button("Simulate");
@@ -39,50 +51,127 @@ public class MM1Simulation {
         resultArea.setEditable(false);
 
         // Chart to visualize simulation results
-        final NumberAxis xAxis = new NumberAxis();
-        xAxis.setLabel("Time");
+        OccupancyChart occupancyChart = new OccupancyChart();
 
-        final NumberAxis yAxis = new NumberAxis();
-        yAxis.setLabel("Number of Customers");
+        // Per-customer results of the last run, listed in a table and exported on request
+        CustomerTable customerTable = new CustomerTable();
+        Button exportButton = new Button("Export Customers...");
+        exportButton.setDisable(true);
 
-        final LineChart<Number, Number> lineChart = new LineChart<>(xAxis, yAxis);
-        lineChart.setTitle("Queue Simulation - Customers Over Time");
+        // Controls to follow and cancel a running simulation
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setDisable(true);
+        ProgressBar progressBar = new ProgressBar(0);
+        Label statusLabel = new Label();
 
         simulateButton.setOnAction(e -> {
+            double meanInterarrival, meanService;
+            long numCustomers;
+            int replications, servers, capacity;
+            double precision;
             try {
                 // Parse inputs
-                double meanInterarrival = Double.parseDouble(meanInterarrivalField.getText());
-                double meanService = Double.parseDouble(meanServiceField.getText());
-                int numCustomers = Integer.parseInt(numCustomersField.getText());
-
-                if (meanInterarrival <= 0 || meanService <= 0 || numCustomers <= 0) {
-                    lineChart.getData().clear();
-                    resultArea.setText("Please enter positive values for all inputs.");
-                    return;
-                }
-
-                // Clear old data and run simulation
-                customers.clear();
-
-                String simulationResult = simulateQueue(meanInterarrival, meanService, numCustomers);
-                resultArea.setText(simulationResult);
-
-                // Clear previous data
-                lineChart.getData().clear();
+                meanInterarrival = Double.parseDouble(meanInterarrivalField.getText());
+                meanService = Double.parseDouble(meanServiceField.getText());
+                numCustomers = Long.parseLong(numCustomersField.getText());
+                replications = replicationsField.getText().isEmpty() ? 1 : Integer.parseInt(replicationsField.getText());
+                servers = serversField.getText().isEmpty() ? 1 : Integer.parseInt(serversField.getText());
+                capacity = capacityField.getText().isEmpty() ? QueueSolver.UNLIMITED : Integer.parseInt(capacityField.getText());
+                precision = precisionField.getText().isEmpty() ? 0 : Double.parseDouble(precisionField.getText());
+            } catch (NumberFormatException ex) {
+                resultArea.setText("Please enter valid numerical values.");
+                return;
+            }
 
-                // Generate simulation results
-                XYChart.Series<Number, Number> series = new XYChart.Series<>();
-                series.setName("Customers in System");
+            // Replicated, multi-server and adaptive runs only keep summary accumulators;
+            // an adaptive run takes the number of customers as its budget
+            boolean keepCustomers = !streamingCheckBox.isSelected() && replications == 1
+                    && servers == 1 && capacity == QueueSolver.UNLIMITED && precision == 0;
+            SimulationConfig config;
+            try {
+                config = new SimulationConfig(meanInterarrival, meanService, numCustomers, servers, capacity,
+                        replications, keepCustomers, System.nanoTime()).withRelativePrecision(precision);
+            } catch (IllegalArgumentException ex) {
+                occupancyChart.clear();
+                customerTable.clear();
+                resultArea.setText(ex.getMessage() + ".");
+                return;
+            }
 
-                // Populate the series with data
-                for (int i = 0; i < extractTimePoints().size(); i++) {
-                    series.getData().add(new XYChart.Data<>(extractTimePoints().get(i), extractCustomerCount(extractTimePoints()).get(i)));
+            // Clear previous data; runs that keep no customers have no chart or table
+            occupancyChart.clear();
+            customerTable.clear();
+            exportButton.setDisable(true);
+            resultArea.clear();
+
+            // Run the simulation in the background so the window stays responsive
+            SimulationTask task = new SimulationTask(config, occupancyChart);
+
+            progressBar.progressProperty().bind(task.progressProperty());
+            statusLabel.textProperty().bind(task.messageProperty());
+            simulateButton.setDisable(true);
+            cancelButton.setDisable(false);
+            cancelButton.setOnAction(ev -> task.cancel());
+
+            task.setOnSucceeded(ev -> {
+                SimulationResult result = task.getValue();
+                resultArea.setText(result.getReport());
+                if (result.getTimeline() != null) {
+                    occupancyChart.show(result.getTimeline());
                 }
-                lineChart.getData().add(series);
+                if (result.getCustomers() != null) {
+                    customerTable.show(result.getCustomers());
+                    exportButton.setDisable(false);
+                }
+                if (Instrumentation.isEnabled()) {
+                    resultArea.appendText("\n" + Instrumentation.format());
+                }
+                simulationFinished(simulateButton, cancelButton, progressBar, statusLabel, "Done");
+            });
+            task.setOnCancelled(ev -> {
+                resultArea.setText("Simulation cancelled.");
+                simulationFinished(simulateButton, cancelButton, progressBar, statusLabel, "Cancelled");
+            });
+            task.setOnFailed(ev -> {
+                resultArea.setText("Simulation failed: " + task.getException());
+                simulationFinished(simulateButton, cancelButton, progressBar, statusLabel, "Failed");
+            });
+
+            Thread worker = new Thread(task, "queue-simulation");
+            worker.setDaemon(true);
+            worker.start();
+        });
 
-            } catch (NumberFormatException ex) {
-                resultArea.setText("Please enter valid numerical values.");
-            }
+        exportButton.setOnAction(e -> {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Export Customers");
+            chooser.getExtensionFilters().addAll(
+                    new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv"),
+                    new FileChooser.ExtensionFilter("Binary records (*.bin)", "*.bin"));
+            File file = chooser.showSaveDialog(exportButton.getScene().getWindow());
+            if (file == null) return;
+
+            // Stream the rows to disk in the background
+            CustomerStore customers = customerTable.getCustomers();
+            Task<Void> export = new Task<>() {
+                @Override
+                protected Void call() throws IOException {
+                    CustomerExporter.export(customers, file.toPath());
+                    return null;
+                }
+            };
+            exportButton.setDisable(true);
+            export.setOnSucceeded(ev -> {
+                statusLabel.setText("Exported " + customers.size() + " customers");
+                exportButton.setDisable(false);
+            });
+            export.setOnFailed(ev -> {
+                statusLabel.setText("Export failed: " + export.getException().getMessage());
+                exportButton.setDisable(false);
+            });
+            Thread worker = new Thread(export, "customer-export");
+            worker.setDaemon(true);
+            worker.start();
         });
 
         // Layout setup
@@ -90,142 +179,83 @@ public class MM1Simulation {
         inputGrid.setVgap(10);
         inputGrid.add(meanInterarrivalLabel, 0, 0);
         inputGrid.add(meanInterarrivalField, 1, 0);
+        inputGrid.add(serversLabel, 2, 0);
+        inputGrid.add(serversField, 3, 0);
         inputGrid.add(meanServiceLabel, 0, 1);
         inputGrid.add(meanServiceField, 1, 1);
+        inputGrid.add(capacityLabel, 2, 1);
+        inputGrid.add(capacityField, 3, 1);
         inputGrid.add(numCustomersLabel, 0, 2);
         inputGrid.add(numCustomersField, 1, 2);
+        inputGrid.add(replicationsLabel, 2, 2);
+        inputGrid.add(replicationsField, 3, 2);
         inputGrid.add(simulateButton, 0, 3);
+        inputGrid.add(streamingCheckBox, 1, 3);
+        inputGrid.add(precisionLabel, 2, 3);
+        inputGrid.add(precisionField, 3, 3);
+        inputGrid.add(cancelButton, 0, 4);
+        inputGrid.add(progressBar, 1, 4);
+        inputGrid.add(statusLabel, 2, 4);
+        inputGrid.add(exportButton, 3, 4);
         inputGrid.add(resultArea, 0, 5, 4, 1);
 
         BorderPane pane = new BorderPane();
         pane.setTop(inputGrid);
-        pane.setCenter(lineChart);
+        Tab chartTab = new Tab("Customers Over Time", occupancyChart.getChart());
+        Tab tableTab = new Tab("Per-Customer Results", customerTable.getTable());
+        chartTab.setClosable(false);
+        tableTab.setClosable(false);
+        TabPane resultTabs = new TabPane();
+        resultTabs.getTabs().addAll(chartTab, tableTab);
+        pane.setCenter(resultTabs);
 
         return pane;
     }
 
-    // A static list to store all the customer objects for simulation
-    static List<Customer> customers = new ArrayList<>();
-    private static String simulateQueue(double meanInterarrival, double meanService, int numCustomers) {
-        // Random number generator for generating exponential random variables
-        Random random = new Random();
-
-        // StringBuilder to store the formatted output table
-        StringBuilder table = new StringBuilder();
-
-        // Add column headers to the output table
-        table.append("C.No.     A.T.     S.T.     S.B.     W.T.     " +
-                "S.E.     T.inS.     Idle T.\n");
-
-        // Initialize variables for tracking simulation metrics
-        double currentTime = 0; // Tracks the current time in the simulation
-        double lastServiceEnd = 0; // Tracks when the last customer's service ended
-        double totalWaitTime = 0, totalTimeInSystem = 0, totalServiceTime = 0, totalIdleTime = 0; // Accumulators for metrics
-
-        // Loop through the number of customers to simulate
-        for (int i = 0; i < numCustomers; i++) {
-            // Generate inter-arrival and service times (exponential distribution)
-            double interarrivalTime = i == 0 ? 0 : -meanInterarrival * Math.log(1 - random.nextDouble());
-            double serviceTime = -meanService * Math.log(1 - random.nextDouble());
-
-            // Calculate the customer's arrival time
-            double arrivalTime = currentTime + interarrivalTime;
-
-            // Create a new Customer object
-            Customer customer = new Customer(i + 1, arrivalTime, serviceTime);
-            customers.add(customer);
-
-            // Update the current time to the arrival time of the new customer
-            currentTime = arrivalTime;
-
-            // Calculate the time when the customer's service starts
-            customer.startService(lastServiceEnd);
-
-            // Calculate individual metrics for the customer
-            double waitTime = customer.getWaitTime();
-            double timeInSystem = customer.getTimeInSystem();
-            double idleTime = Math.max(0,(currentTime-lastServiceEnd)); // Time-server was idle before this customer
-
-            // Accumulate metrics for calculating averages and performance metrics
-            totalWaitTime += waitTime;
-            totalTimeInSystem += timeInSystem;
-            totalServiceTime += serviceTime;
-            totalIdleTime += idleTime;
-
-            // Append the customer's details to the output table
-            table.append(String.format("%d          %.2f     %.2f     %.2f     %.2f     %.2f     %.2f     %.2f\n",
-                    customer.getCustomerNumber(),
-                    customer.getArrivalTime(),
-                    customer.getServiceTime(),
-                    customer.getServiceStartTime(),
-                    waitTime,
-                    customer.getServiceEndTime(),
-                    timeInSystem,
-                    idleTime));
-
-            // Update the last service end time to this customer's service end time
-            lastServiceEnd = customer.getServiceEndTime();
-
-        }
-
-        // Calculate performance metrics
-        double avgWaitTime = totalWaitTime / numCustomers; // Average time customers wait in the queue
-        double avgTimeInSystem = totalTimeInSystem / numCustomers; // Average time customers spend in the system
-        double serverUtilization = totalServiceTime / lastServiceEnd; // Proportion of time the server is busy
-
-        // Append performance metrics to result
-        table.append("\nPerformance Metrics:\n");
-        table.append(String.format("Average Waiting Time: %.2f\n", avgWaitTime));
-        table.append(String.format("Average Time in System: %.2f\n", avgTimeInSystem));
-        table.append(String.format("Server Utilization: %.2f%%\n", serverUtilization * 100));
-
-        // Return the complete simulation report
-        return table.toString();
-    }
-
     /**
-     * Extracts all unique time points (arrival times and service end times) from the customer data.
-     *
-     * @return A sorted list of unique time points.
+     * Background task that runs a simulation on the headless simulator and reports its progress,
+     * appending the timeline of a detailed run to the chart as it comes in.
      */
+    private static class SimulationTask extends Task<SimulationResult> {
+        private final SimulationConfig config;
+        private final OccupancyChart occupancyChart;
 
-    private static List<Double> extractTimePoints(){
-        // Use a TreeSet to automatically sort and store unique time points
-        Set<Double> timePointsSet = new TreeSet<>();
-
-        // Add arrival times and service end times for all customers
-        for (Customer customer : customers) {
-            timePointsSet.add(customer.getArrivalTime()); // Add arrival time
-            timePointsSet.add(customer.getServiceEndTime()); // Add service end time
+        SimulationTask(SimulationConfig config, OccupancyChart occupancyChart) {
+            this.config = config;
+            this.occupancyChart = occupancyChart;
         }
-        // Convert the sorted set to a list and return
-        return new ArrayList<>(timePointsSet);
-    }
 
-    /**
-     * Calculates the number of customers in the system at each time point.
-     *
-     * @param timePoints A list of unique time points.
-     * @return A list of customer counts corresponding to each time point.
-     */
-    private static List<Integer> extractCustomerCount(List<Double> timePoints){
-        List<Integer> customerCounts = new ArrayList<>(); // List to store customer counts at each time point
-
-        // Iterate through each time point
-        for (double time : timePoints) {
-            int count = 0;  // Counter for customers present in the system at the current time
+        @Override
+        protected SimulationResult call() {
+            updateMessage("Simulating...");
+            return new QueueSimulator().run(config, new ProgressMonitor() {
+                @Override
+                public void progress(long completed, long total) {
+                    updateProgress(completed, total);
+                }
 
-            // Check each customer to see if they are in the system at the current time
-            for (Customer customer : customers) {
-                if (customer.getArrivalTime() <= time && customer.getServiceEndTime() > time) {
-                    count++;  // Increment count if the customer is in the system
+                @Override
+                public boolean isCancelled() {
+                    return SimulationTask.this.isCancelled();
                 }
-            }
 
-            // Add the count for this time point to the list
-            customerCounts.add(count);
+                @Override
+                public void timeline(OccupancyTimeline piece) {
+                    Platform.runLater(() -> {
+                        if (!SimulationTask.this.isCancelled()) occupancyChart.append(piece);
+                    });
+                }
+            });
         }
-        // Return the list of customer counts
-        return customerCounts;
     }
-}
\ No newline at end of file
+
+    // Restores the controls once a background simulation has ended
+    private static void simulationFinished(Button simulateButton, Button cancelButton,
+                                           ProgressBar progressBar, Label statusLabel, String status) {
+        progressBar.progressProperty().unbind();
+        statusLabel.textProperty().unbind();
+        statusLabel.setText(status);
+        simulateButton.setDisable(false);
+        cancelButton.setDisable(true);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Performance of every station and of the whole network measured by one NetworkSimulation run.
+ */
+
+public class NetworkResult {
+    private final long arrivals;
+    private final long events;
+    private final double horizon;
+    private final long[] visits;
+    private final RunningStatistics[] waitTimes;
+    private final RunningStatistics[] timesAtStation;
+    private final double[] meanPresent;
+    private final double[] utilization;
+    private final RunningStatistics timesInNetwork;
+    private final LogHistogram timeInNetworkHistogram;
+
+    public NetworkResult(long arrivals, long events, double horizon, long[] visits, RunningStatistics[] waitTimes,
+                         RunningStatistics[] timesAtStation, double[] meanPresent, double[] utilization,
+                         RunningStatistics timesInNetwork, LogHistogram timeInNetworkHistogram) {
+        this.arrivals = arrivals;
+        this.events = events;
+        this.horizon = horizon;
+        this.visits = visits;
+        this.waitTimes = waitTimes;
+        this.timesAtStation = timesAtStation;
+        this.meanPresent = meanPresent;
+        this.utilization = utilization;
+        this.timesInNetwork = timesInNetwork;
+        this.timeInNetworkHistogram = timeInNetworkHistogram;
+    }
+
+    /**
+     * @return Number of customers that arrived from outside.
+     */
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    /**
+     * @return Number of events processed, external arrivals and service completions.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return Time of the last external arrival, over which the time averages and throughputs are taken.
+     */
+    public double getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * @return Number of arrivals at the station, from outside and from other stations.
+     */
+    public long getVisits(int station) {
+        return visits[station];
+    }
+
+    /**
+     * @return Measured arrival rate of the station (λi), counting the later visits of every customer who arrived
+     * within the horizon.
+     */
+    public double getThroughput(int station) {
+        return horizon > 0 ? visits[station] / horizon : 0;
+    }
+
+    public RunningStatistics getWaitTimes(int station) {
+        return waitTimes[station];
+    }
+
+    /**
+     * @return Times from arriving at the station to leaving it, per visit.
+     */
+    public RunningStatistics getTimesAtStation(int station) {
+        return timesAtStation[station];
+    }
+
+    /**
+     * @return Time-average number of customers at the station (L).
+     */
+    public double getMeanPresent(int station) {
+        return meanPresent[station];
+    }
+
+    /**
+     * @return Fraction of the station's server capacity in use.
+     */
+    public double getUtilization(int station) {
+        return utilization[station];
+    }
+
+    /**
+     * @return Times from arriving from outside to leaving the network, per customer.
+     */
+    public RunningStatistics getTimesInNetwork() {
+        return timesInNetwork;
+    }
+
+    public LogHistogram getTimeInNetworkHistogram() {
+        return timeInNetworkHistogram;
+    }
+}
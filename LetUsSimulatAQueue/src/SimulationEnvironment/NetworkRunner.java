@@ -0,0 +1,104 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Runs independent replications of a Jackson network simulation in parallel on a fork-join pool,
+ * each on its own jump-ahead stream of one seeded xoshiro256++ generator as in ReplicationRunner.
+ */
+
+public class NetworkRunner {
+
+    /**
+     * Runs the replications and merges their averages into confidence intervals.
+     *
+     * @param network                Network to simulate.
+     * @param arrivalsPerReplication Number of external arrivals simulated in every replication.
+     * @param replications           Number of independent replications.
+     * @param seed                   Seed of the root random stream.
+     * @param confidence             Confidence level of the intervals, e.g. 0.95.
+     * @param monitor                Receives the number of external arrivals simulated over all replications and may cancel the run.
+     * @return The merged replication results.
+     * @throws CancellationException    If the monitor cancels the run.
+     * @throws IllegalArgumentException If the arrivals or replications are not positive, or their product does not fit in a long.
+     */
+    public static NetworkSummary run(JacksonNetwork network, long arrivalsPerReplication, int replications, long seed,
+                                     double confidence, ProgressMonitor monitor) {
+        if (arrivalsPerReplication <= 0 || replications <= 0) {
+            throw new IllegalArgumentException("Arrivals and replications must be positive");
+        }
+        Xoshiro256PlusPlus root = new Xoshiro256PlusPlus(seed);
+        Xoshiro256PlusPlus[] streams = new Xoshiro256PlusPlus[replications];
+        for (int i = 0; i < replications; i++) {
+            streams[i] = root.nextStream();
+        }
+
+        // One slot per replication, so the workers never share anything they write
+        NetworkResult[] results = new NetworkResult[replications];
+        long total;
+        try {
+            total = Math.multiplyExact(arrivalsPerReplication, replications);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Too many arrivals over all replications");
+        }
+        AtomicLong simulated = new AtomicLong();
+        LogHistogram timeInNetworkHistogram = new LogHistogram();
+
+        Instrumentation.Span span = Instrumentation.start(Instrumentation.Phase.SIMULATION);
+        try {
+            IntStream.range(0, replications).parallel().forEach(i -> {
+                if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                results[i] = new NetworkSimulation(network, streams[i]).run(arrivalsPerReplication,
+                        ProgressMonitor.concurrent(monitor, simulated, total));
+                synchronized (timeInNetworkHistogram) {
+                    timeInNetworkHistogram.merge(results[i].getTimeInNetworkHistogram());
+                    span.count(results[i].getArrivals(), results[i].getEvents());
+                }
+            });
+        } finally {
+            span.close();
+        }
+
+        // Merge the per-replication averages in replication order
+        int stations = network.getStations();
+        ConfidenceInterval[] throughput = new ConfidenceInterval[stations];
+        ConfidenceInterval[] meanPresent = new ConfidenceInterval[stations];
+        ConfidenceInterval[] waitTime = new ConfidenceInterval[stations];
+        ConfidenceInterval[] timeAtStation = new ConfidenceInterval[stations];
+        ConfidenceInterval[] utilization = new ConfidenceInterval[stations];
+        for (int s = 0; s < stations; s++) {
+            RunningStatistics throughputs = new RunningStatistics();
+            RunningStatistics presents = new RunningStatistics();
+            RunningStatistics waits = new RunningStatistics();
+            RunningStatistics times = new RunningStatistics();
+            RunningStatistics utilizations = new RunningStatistics();
+            for (NetworkResult result : results) {
+                throughputs.add(result.getThroughput(s));
+                presents.add(result.getMeanPresent(s));
+                waits.add(result.getWaitTimes(s).getMean());
+                times.add(result.getTimesAtStation(s).getMean());
+                utilizations.add(result.getUtilization(s));
+            }
+            throughput[s] = ConfidenceInterval.of(throughputs, confidence);
+            meanPresent[s] = ConfidenceInterval.of(presents, confidence);
+            waitTime[s] = ConfidenceInterval.of(waits, confidence);
+            timeAtStation[s] = ConfidenceInterval.of(times, confidence);
+            utilization[s] = ConfidenceInterval.of(utilizations, confidence);
+        }
+        RunningStatistics timesInNetwork = new RunningStatistics();
+        long events = 0;
+        for (NetworkResult result : results) {
+            timesInNetwork.add(result.getTimesInNetwork().getMean());
+            events += result.getEvents();
+        }
+        return new NetworkSummary(network, replications, arrivalsPerReplication, events, throughput, meanPresent,
+                waitTime, timeAtStation, utilization, ConfidenceInterval.of(timesInNetwork, confidence),
+                timeInNetworkHistogram);
+    }
+}
@@ -0,0 +1,299 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Event-driven simulation of one replication of an open Jackson network.
+ * External arrivals form one Poisson stream whose destination is drawn per customer, and every
+ * service completion draws the next station or the exit, both from alias tables in O(1) whatever
+ * the number of stations. Customers are slots in primitive arrays recycled through a free list,
+ * and every station keeps its waiting line as a ring of slot numbers, so the event loop does not
+ * allocate once the network has reached its working size.
+ */
+
+public class NetworkSimulation {
+    private static final int EXTERNAL_ARRIVAL = 0;
+    private static final int DEPARTURE = 1;
+    private static final int PROGRESS_INTERVAL = 1 << 16; // External arrivals between progress reports
+
+    private final JacksonNetwork network;
+    private final RandomGenerator random;
+    private final AliasTable entries;   // Station of each external arrival
+    private final AliasTable[] routes;  // Next station after each station, or the exit
+
+    /**
+     * @param network The network to simulate.
+     * @param random  Random stream for all draws.
+     */
+    public NetworkSimulation(JacksonNetwork network, RandomGenerator random) {
+        this.network = network;
+        this.random = random;
+        int stations = network.getStations();
+
+        int[] targets = new int[stations + 1];
+        double[] weights = new double[stations + 1];
+        int count = 0;
+        for (int j = 0; j < stations; j++) {
+            if (network.getExternalRate(j) > 0) {
+                targets[count] = j;
+                weights[count++] = network.getExternalRate(j);
+            }
+        }
+        entries = new AliasTable(Arrays.copyOf(targets, count), Arrays.copyOf(weights, count));
+
+        routes = new AliasTable[stations];
+        for (int i = 0; i < stations; i++) {
+            count = 0;
+            for (int j = 0; j < stations; j++) {
+                if (network.getRouting(i, j) > 0) {
+                    targets[count] = j;
+                    weights[count++] = network.getRouting(i, j);
+                }
+            }
+            if (network.getExitProbability(i) > 0 || count == 0) {
+                targets[count] = stations; // Leaves the network
+                weights[count++] = Math.max(network.getExitProbability(i), Double.MIN_NORMAL);
+            }
+            routes[i] = new AliasTable(Arrays.copyOf(targets, count), Arrays.copyOf(weights, count));
+        }
+    }
+
+    /**
+     * Simulates the given number of external arrivals and lets the network drain afterwards.
+     * Every customer counts towards the waiting times and times in network, but the time integrals of
+     * the stations stop at the last external arrival, since the drain after it would pull the mean number
+     * present and the utilization towards an empty network.
+     *
+     * @param numArrivals Number of customers arriving from outside.
+     * @param monitor     Receives progress and may cancel the run.
+     * @return The measured performance of every station and of the network as a whole.
+     * @throws CancellationException If the monitor cancels the run.
+     */
+    public NetworkResult run(long numArrivals, ProgressMonitor monitor) {
+        int stations = network.getStations();
+        double externalRate = network.getTotalExternalRate();
+        double[] serviceRates = new double[stations];
+        int[] servers = new int[stations];
+        for (int i = 0; i < stations; i++) {
+            serviceRates[i] = network.getServiceRate(i);
+            servers[i] = network.getServers(i);
+        }
+
+        // State of the stations: customers present and busy servers, with their waiting lines as rings of slots
+        int[] present = new int[stations];
+        int[] busy = new int[stations];
+        int[][] queues = new int[stations][16];
+        int[] queueHeads = new int[stations];
+        int[] queueSizes = new int[stations];
+
+        // Per-station statistics; the time integrals are brought up to date whenever a station changes
+        long[] visits = new long[stations];
+        RunningStatistics[] waitTimes = new RunningStatistics[stations];
+        RunningStatistics[] timesAtStation = new RunningStatistics[stations];
+        for (int i = 0; i < stations; i++) {
+            waitTimes[i] = new RunningStatistics();
+            timesAtStation[i] = new RunningStatistics();
+        }
+        double[] areaPresent = new double[stations];
+        double[] areaBusy = new double[stations];
+        double[] lastChange = new double[stations];
+
+        // End-to-end statistics
+        RunningStatistics timesInNetwork = new RunningStatistics();
+        LogHistogram timeInNetworkHistogram = new LogHistogram();
+
+        // Customers in the network, as slots recycled through a stack of free slots
+        CustomerSlots slots = new CustomerSlots();
+
+        EventCalendar calendar = new EventCalendar();
+        double now = 0;
+        double horizon = Double.POSITIVE_INFINITY; // Time of the last external arrival, once it has happened
+        long arrivals = 0, events = 0;
+        calendar.schedule(0, EXTERNAL_ARRIVAL, 0);
+        while (!calendar.isEmpty()) {
+            now = calendar.peekTime();
+            int type = calendar.peekType();
+            int customer = calendar.peekPayload();
+            calendar.removeFirst();
+            events++;
+
+            int station;
+            if (type == EXTERNAL_ARRIVAL) {
+                arrivals++;
+                if (arrivals % PROGRESS_INTERVAL == 0) {
+                    if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                    monitor.progress(arrivals, numArrivals);
+                }
+                if (arrivals < numArrivals) {
+                    calendar.schedule(now + ZigguratExponential.next(random) / externalRate, EXTERNAL_ARRIVAL, 0);
+                } else {
+                    horizon = now;
+                }
+                customer = slots.acquire(now);
+                station = entries.sample(random);
+            } else {
+                // Service completion: the customer leaves its station and the next waiting one is served
+                int from = slots.station[customer];
+                lastChange[from] = accumulate(from, Math.min(now, horizon), lastChange, present, busy, areaPresent, areaBusy);
+                present[from]--;
+                timesAtStation[from].add(now - slots.stationEntry[customer]);
+                if (queueSizes[from] > 0) {
+                    int next = queues[from][queueHeads[from]];
+                    queueHeads[from] = (queueHeads[from] + 1) & (queues[from].length - 1);
+                    queueSizes[from]--;
+                    waitTimes[from].add(now - slots.stationEntry[next]);
+                    calendar.schedule(now + ZigguratExponential.next(random) / serviceRates[from], DEPARTURE, next);
+                } else {
+                    busy[from]--;
+                }
+
+                station = routes[from].sample(random);
+                if (station == stations) {
+                    timesInNetwork.add(now - slots.networkEntry[customer]);
+                    timeInNetworkHistogram.record(now - slots.networkEntry[customer]);
+                    slots.release(customer);
+                    continue;
+                }
+            }
+
+            // The customer joins the station and is served at once if a server is free
+            lastChange[station] = accumulate(station, Math.min(now, horizon), lastChange, present, busy, areaPresent, areaBusy);
+            visits[station]++;
+            present[station]++;
+            slots.station[customer] = station;
+            slots.stationEntry[customer] = now;
+            if (busy[station] < servers[station]) {
+                busy[station]++;
+                waitTimes[station].add(0);
+                calendar.schedule(now + ZigguratExponential.next(random) / serviceRates[station], DEPARTURE, customer);
+            } else {
+                if (queueSizes[station] == queues[station].length) {
+                    queues[station] = growQueue(queues[station], queueHeads[station], queueSizes[station]);
+                    queueHeads[station] = 0;
+                }
+                queues[station][(queueHeads[station] + queueSizes[station]) & (queues[station].length - 1)] = customer;
+                queueSizes[station]++;
+            }
+        }
+        monitor.progress(numArrivals, numArrivals);
+
+        // Bring every station up to the last external arrival
+        double[] meanPresent = new double[stations];
+        double[] utilization = new double[stations];
+        for (int i = 0; i < stations; i++) {
+            accumulate(i, horizon, lastChange, present, busy, areaPresent, areaBusy);
+            meanPresent[i] = horizon > 0 ? areaPresent[i] / horizon : 0;
+            utilization[i] = horizon > 0 ? areaBusy[i] / (horizon * servers[i]) : 0;
+        }
+        return new NetworkResult(arrivals, events, horizon, visits, waitTimes, timesAtStation, meanPresent, utilization,
+                timesInNetwork, timeInNetworkHistogram);
+    }
+
+    // Adds the time since the station last changed to its integrals and returns the new change time
+    private static double accumulate(int station, double now, double[] lastChange, int[] present, int[] busy,
+                                     double[] areaPresent, double[] areaBusy) {
+        double elapsed = now - lastChange[station];
+        areaPresent[station] += present[station] * elapsed;
+        areaBusy[station] += busy[station] * elapsed;
+        return now;
+    }
+
+    // Doubles a ring of slots and moves the waiting customers to its start
+    private static int[] growQueue(int[] queue, int head, int size) {
+        int[] grown = new int[queue.length * 2];
+        for (int i = 0; i < size; i++) {
+            grown[i] = queue[(head + i) & (queue.length - 1)];
+        }
+        return grown;
+    }
+
+    /**
+     * Customers currently in the network, one slot each in parallel arrays.
+     */
+    private static final class CustomerSlots {
+        double[] networkEntry = new double[64];
+        double[] stationEntry = new double[64];
+        int[] station = new int[64];
+        private int[] free = new int[64];
+        private int freeCount;
+        private int used;
+
+        int acquire(double now) {
+            int slot;
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else {
+                if (used == station.length) {
+                    networkEntry = Arrays.copyOf(networkEntry, used * 2);
+                    stationEntry = Arrays.copyOf(stationEntry, used * 2);
+                    station = Arrays.copyOf(station, used * 2);
+                    free = Arrays.copyOf(free, used * 2);
+                }
+                slot = used++;
+            }
+            networkEntry[slot] = now;
+            return slot;
+        }
+
+        void release(int slot) {
+            free[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Walker's alias table: draws one of a fixed set of outcomes with given weights from a single uniform.
+     */
+    private static final class AliasTable {
+        private final int[] outcomes;
+        private final double[] threshold;
+        private final int[] alias;
+
+        AliasTable(int[] outcomes, double[] weights) {
+            int n = outcomes.length;
+            this.outcomes = outcomes;
+            this.threshold = new double[n];
+            this.alias = new int[n];
+            double total = 0;
+            for (double weight : weights) {
+                total += weight;
+            }
+
+            // Vose's method: pair every under-full column with an over-full one
+            double[] scaled = new double[n];
+            int[] small = new int[n], large = new int[n];
+            int smallCount = 0, largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weights[i] * n / total;
+                if (scaled[i] < 1) small[smallCount++] = i;
+                else large[largeCount++] = i;
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount], more = large[--largeCount];
+                threshold[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] -= 1 - scaled[less];
+                if (scaled[more] < 1) small[smallCount++] = more;
+                else large[largeCount++] = more;
+            }
+            while (largeCount > 0) {
+                threshold[large[--largeCount]] = 1;
+            }
+            while (smallCount > 0) {
+                threshold[small[--smallCount]] = 1; // Only left over through rounding
+            }
+        }
+
+        int sample(RandomGenerator random) {
+            if (outcomes.length == 1) return outcomes[0];
+            double u = random.nextDouble() * outcomes.length;
+            int column = (int) u;
+            return outcomes[u - column < threshold[column] ? column : alias[column]];
+        }
+    }
+}
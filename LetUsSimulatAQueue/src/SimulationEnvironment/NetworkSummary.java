@@ -0,0 +1,146 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Confidence intervals merged from independent replications of a Jackson network simulation,
+ * reported next to the product-form solution of the network.
+ */
+
+public class NetworkSummary {
+    private final JacksonNetwork network;
+    private final int replications;
+    private final long arrivalsPerReplication;
+    private final long events;
+    private final ConfidenceInterval[] throughput;
+    private final ConfidenceInterval[] meanPresent;
+    private final ConfidenceInterval[] waitTime;
+    private final ConfidenceInterval[] timeAtStation;
+    private final ConfidenceInterval[] utilization;
+    private final ConfidenceInterval timeInNetwork;
+    private final LogHistogram timeInNetworkHistogram;
+
+    public NetworkSummary(JacksonNetwork network, int replications, long arrivalsPerReplication, long events,
+                          ConfidenceInterval[] throughput, ConfidenceInterval[] meanPresent,
+                          ConfidenceInterval[] waitTime, ConfidenceInterval[] timeAtStation,
+                          ConfidenceInterval[] utilization, ConfidenceInterval timeInNetwork,
+                          LogHistogram timeInNetworkHistogram) {
+        this.network = network;
+        this.replications = replications;
+        this.arrivalsPerReplication = arrivalsPerReplication;
+        this.events = events;
+        this.throughput = throughput;
+        this.meanPresent = meanPresent;
+        this.waitTime = waitTime;
+        this.timeAtStation = timeAtStation;
+        this.utilization = utilization;
+        this.timeInNetwork = timeInNetwork;
+        this.timeInNetworkHistogram = timeInNetworkHistogram;
+    }
+
+    public JacksonNetwork getNetwork() {
+        return network;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    public long getArrivalsPerReplication() {
+        return arrivalsPerReplication;
+    }
+
+    /**
+     * @return Number of events processed over all replications.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    public ConfidenceInterval getThroughput(int station) {
+        return throughput[station];
+    }
+
+    public ConfidenceInterval getMeanPresent(int station) {
+        return meanPresent[station];
+    }
+
+    public ConfidenceInterval getWaitTime(int station) {
+        return waitTime[station];
+    }
+
+    public ConfidenceInterval getTimeAtStation(int station) {
+        return timeAtStation[station];
+    }
+
+    public ConfidenceInterval getUtilization(int station) {
+        return utilization[station];
+    }
+
+    /**
+     * @return Mean time from arriving from outside to leaving the network.
+     */
+    public ConfidenceInterval getTimeInNetwork() {
+        return timeInNetwork;
+    }
+
+    public LogHistogram getTimeInNetworkHistogram() {
+        return timeInNetworkHistogram;
+    }
+
+    /**
+     * Product-form mean time in the network, by Little's law over the whole network: ΣLi / Σγi.
+     *
+     * @param network The network.
+     * @param metrics Product-form metrics of its stations.
+     * @return The mean time from arriving from outside to leaving, infinite if a station is unstable.
+     */
+    public static double productFormTimeInNetwork(JacksonNetwork network, QueueMetrics[] metrics) {
+        double l = 0;
+        for (QueueMetrics station : metrics) {
+            l += station.getL();
+        }
+        return l / network.getTotalExternalRate();
+    }
+
+    /**
+     * Formats the merged metrics of every station and of the network next to the product-form values.
+     *
+     * @return The performance metrics with their confidence intervals.
+     */
+    public String formatSummary() {
+        QueueMetrics[] analytic = network.solveStations();
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Jackson network: %d stations, %d replications x %d arrivals (%d events)\n",
+                network.getStations(), replications, arrivalsPerReplication, events));
+        for (int s = 0; s < analytic.length; s++) {
+            if (!analytic[s].isStable()) {
+                summary.append(String.format("Station %d is unstable (ρ ≥ 1). Results may not be meaningful.\n", s + 1));
+            }
+        }
+
+        summary.append(String.format("\nPer-Station Metrics (%.0f%% confidence intervals, product form in brackets):\n",
+                timeInNetwork.getConfidence() * 100));
+        summary.append(String.format("%-8s %-4s %-28s %-28s %-28s %s\n", "Station", "c", "λ", "ρ", "L", "W"));
+        for (int s = 0; s < analytic.length; s++) {
+            summary.append(String.format("%-8d %-4d %-28s %-28s %-28s %s\n", s + 1, network.getServers(s),
+                    withProductForm(throughput[s], analytic[s].getLambda()),
+                    withProductForm(utilization[s], analytic[s].getRho()),
+                    withProductForm(meanPresent[s], analytic[s].getL()),
+                    withProductForm(timeAtStation[s], analytic[s].getW())));
+        }
+
+        summary.append("\nEnd-to-End Metrics:\n");
+        summary.append(String.format("Average Time in Network: %s\n",
+                withProductForm(timeInNetwork, productFormTimeInNetwork(network, analytic))));
+        summary.append("\nPooled over all replications:\n");
+        summary.append(timeInNetworkHistogram.formatPercentiles("Time in Network"));
+        return summary.toString();
+    }
+
+    private static String withProductForm(ConfidenceInterval interval, double analytic) {
+        return String.format("%s [%.4f]", interval, analytic);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.ScrollEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line chart of the customers in the system over time.
+ * The chart only ever holds a downsampled view of the occupancy timeline, which is
+ * rebuilt for the visible range whenever the chart is resized or zoomed.
+ * While a run is going, downsampled pieces of its timeline are appended as they arrive;
+ * zooming starts once the whole timeline is shown.
+ * Scroll to zoom around the mouse position and double-click to show the whole run again.
+ */
+
+class OccupancyChart {
+    private static final int MIN_BUCKETS = 100;     // Lower bound on the resolution of the view
+    private static final double ZOOM_FACTOR = 0.8;  // Visible range kept per scroll step when zooming in
+
+    private final NumberAxis xAxis = new NumberAxis();
+    private final NumberAxis yAxis = new NumberAxis();
+    private final LineChart<Number, Number> lineChart = new LineChart<>(xAxis, yAxis);
+    private final XYChart.Series<Number, Number> series = new XYChart.Series<>();
+    private OccupancyTimeline timeline;
+
+    OccupancyChart() {
+        xAxis.setLabel("Time");
+        yAxis.setLabel("Number of Customers");
+        lineChart.setTitle("Queue Simulation - Customers Over Time");
+        series.setName("Customers in System");
+
+        // Skip per-point symbols and animations, the view is redrawn as a whole
+        lineChart.setCreateSymbols(false);
+        lineChart.setAnimated(false);
+
+        // Re-sample when the number of pixel columns or the visible range changes
+        lineChart.widthProperty().addListener((observable, oldWidth, newWidth) -> resample());
+        lineChart.setOnScroll(this::zoom);
+        lineChart.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) resetZoom();
+        });
+    }
+
+    LineChart<Number, Number> getChart() {
+        return lineChart;
+    }
+
+    /**
+     * Shows a new timeline over its whole time range.
+     *
+     * @param timeline The occupancy timeline of the run.
+     */
+    void show(OccupancyTimeline timeline) {
+        this.timeline = timeline;
+        if (lineChart.getData().isEmpty()) {
+            lineChart.getData().add(series);
+        }
+        resetZoom();
+    }
+
+    /**
+     * Appends the next piece of a running simulation, in one change of the series.
+     *
+     * @param piece Downsampled number in system, starting where the previous piece ended.
+     */
+    void append(OccupancyTimeline piece) {
+        if (timeline != null) return; // The whole run is already shown
+        if (lineChart.getData().isEmpty()) {
+            lineChart.getData().add(series);
+        }
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(piece.size());
+        for (int i = 0; i < piece.size(); i++) {
+            points.add(new XYChart.Data<>(piece.getTime(i), piece.getCount(i)));
+        }
+        series.getData().addAll(points);
+    }
+
+    /**
+     * Removes the current timeline from the chart.
+     */
+    void clear() {
+        timeline = null;
+        series.getData().clear();
+        lineChart.getData().clear();
+    }
+
+    private void resetZoom() {
+        xAxis.setAutoRanging(true);
+        resample();
+    }
+
+    // Rebuilds the series from the part of the timeline that is currently visible
+    private void resample() {
+        if (timeline == null) return;
+        double from = xAxis.isAutoRanging() ? timeline.getStartTime() : xAxis.getLowerBound();
+        double to = xAxis.isAutoRanging() ? timeline.getEndTime() : xAxis.getUpperBound();
+        int buckets = Math.max(MIN_BUCKETS, (int) lineChart.getWidth());
+
+        Instrumentation.Span span = Instrumentation.start(Instrumentation.Phase.CHART);
+        try {
+            OccupancyTimeline view = ChartDownsampler.downsample(timeline, from, to, buckets);
+            List<XYChart.Data<Number, Number>> points = new ArrayList<>(view.size());
+            for (int i = 0; i < view.size(); i++) {
+                points.add(new XYChart.Data<>(view.getTime(i), view.getCount(i)));
+            }
+            series.getData().setAll(points);
+        } finally {
+            span.close();
+        }
+    }
+
+    // Narrows or widens the visible time range around the mouse position
+    private void zoom(ScrollEvent event) {
+        if (timeline == null || event.getDeltaY() == 0) return;
+        double start = timeline.getStartTime();
+        double end = timeline.getEndTime();
+        double lower = xAxis.isAutoRanging() ? start : xAxis.getLowerBound();
+        double upper = xAxis.isAutoRanging() ? end : xAxis.getUpperBound();
+
+        double mouseX = xAxis.sceneToLocal(event.getSceneX(), event.getSceneY()).getX();
+        double center = Math.max(lower, Math.min(upper, xAxis.getValueForDisplay(mouseX).doubleValue()));
+        double factor = event.getDeltaY() > 0 ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+        double newLower = Math.max(start, center - (center - lower) * factor);
+        double newUpper = Math.min(end, center + (upper - center) * factor);
+        event.consume();
+
+        if (newLower <= start && newUpper >= end) {
+            resetZoom();
+            return;
+        }
+        xAxis.setAutoRanging(false);
+        xAxis.setLowerBound(newLower);
+        xAxis.setUpperBound(newUpper);
+        xAxis.setTickUnit((newUpper - newLower) / 10);
+        resample();
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Time-weighted distribution of the number of customers in the system.
+ * Holds the total time spent at each level, so its size follows the largest level
+ * reached rather than the number of customers, and histograms of separate runs merge by adding.
+ * Levels from {@link #LEVELS} up share one overflow bucket that keeps their total time, their
+ * time-weighted sum and the largest of them, so an unstable queue cannot make the histogram grow
+ * without bound while the mean and the maximum stay exact.
+ */
+
+public class OccupancyHistogram {
+    /**
+     * Number of levels kept one by one; higher levels go to the overflow bucket.
+     */
+    public static final int LEVELS = 1 << 16;
+
+    private double[] timeAtLevel = new double[16];
+    private double overflowTime;   // Time spent at LEVELS customers or more
+    private double overflowArea;   // Integral of the level over that time
+    private int overflowMaxLevel;  // Largest level of the overflow bucket with any time
+
+    /**
+     * Adds time spent at one level. This runs once per event, so it only touches the one slot;
+     * the total and the largest level are derived when the histogram is read.
+     *
+     * @param level    Number of customers in the system.
+     * @param duration Time spent at that level, not negative.
+     */
+    public void add(int level, double duration) {
+        if (level >= LEVELS) {
+            addOverflow(level, duration, level * duration);
+            return;
+        }
+        if (level >= timeAtLevel.length) {
+            timeAtLevel = Arrays.copyOf(timeAtLevel, Math.min(LEVELS, Math.max(level + 1, timeAtLevel.length * 2)));
+        }
+        timeAtLevel[level] += duration;
+    }
+
+    private void addOverflow(int maxLevel, double duration, double area) {
+        overflowTime += duration;
+        overflowArea += area;
+        if (duration > 0) overflowMaxLevel = Math.max(overflowMaxLevel, maxLevel);
+    }
+
+    /**
+     * Adds the time of another histogram to this one.
+     *
+     * @param other The histogram to merge.
+     */
+    public void merge(OccupancyHistogram other) {
+        for (int level = Math.min(other.getMaxLevel(), other.timeAtLevel.length - 1); level >= 0; level--) {
+            add(level, other.timeAtLevel[level]);
+        }
+        addOverflow(other.overflowMaxLevel, other.overflowTime, other.overflowArea);
+    }
+
+    /**
+     * Forgets all recorded time.
+     */
+    public void clear() {
+        Arrays.fill(timeAtLevel, 0);
+        overflowTime = 0;
+        overflowArea = 0;
+        overflowMaxLevel = 0;
+    }
+
+    /**
+     * @return An independent copy of this histogram.
+     */
+    public OccupancyHistogram copy() {
+        OccupancyHistogram copy = new OccupancyHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Writes the exact state of the histogram, e.g. to a checkpoint.
+     *
+     * @param out Receives the state.
+     * @throws IOException If the state cannot be written.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        int levels = Math.min(getMaxLevel() + 1, timeAtLevel.length);
+        out.writeInt(levels);
+        for (int level = 0; level < levels; level++) {
+            out.writeDouble(timeAtLevel[level]);
+        }
+        out.writeDouble(overflowTime);
+        out.writeDouble(overflowArea);
+        out.writeInt(overflowMaxLevel);
+    }
+
+    /**
+     * Replaces the histogram with a state written by {@link #writeState(DataOutput)}.
+     *
+     * @param in Supplies the state.
+     * @throws IOException If the state cannot be read.
+     */
+    public void readState(DataInput in) throws IOException {
+        clear();
+        int levels = in.readInt();
+        for (int level = 0; level < levels; level++) {
+            add(level, in.readDouble());
+        }
+        overflowTime = in.readDouble();
+        overflowArea = in.readDouble();
+        overflowMaxLevel = in.readInt();
+    }
+
+    public double getTotalTime() {
+        double totalTime = overflowTime;
+        for (double time : timeAtLevel) {
+            totalTime += time;
+        }
+        return totalTime;
+    }
+
+    /**
+     * @return The largest level the system spent any time at.
+     */
+    public int getMaxLevel() {
+        if (overflowTime > 0) return overflowMaxLevel;
+        int level = timeAtLevel.length - 1;
+        while (level > 0 && timeAtLevel[level] == 0) {
+            level--;
+        }
+        return level;
+    }
+
+    /**
+     * @param level Number of customers in the system.
+     * @return The share of time the system held exactly that many customers (Pn); 0 from {@link #LEVELS} up,
+     * where only the share of the whole overflow bucket is known.
+     */
+    public double getProbability(int level) {
+        double totalTime = getTotalTime();
+        return level < timeAtLevel.length && totalTime > 0 ? timeAtLevel[level] / totalTime : 0;
+    }
+
+    /**
+     * @return The time-average number of customers in the system (L).
+     */
+    public double getMean() {
+        double totalTime = getTotalTime();
+        if (totalTime <= 0) return 0;
+        double area = overflowArea;
+        for (int level = 1; level < timeAtLevel.length; level++) {
+            area += level * timeAtLevel[level];
+        }
+        return area / totalTime;
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100.
+     * @return The smallest level that the system did not exceed for at least the given share of the time,
+     * or {@link #LEVELS} if that level falls in the overflow bucket.
+     */
+    public int getPercentile(double percentile) {
+        int maxLevel = getMaxLevel();
+        double target = percentile / 100 * getTotalTime();
+        double cumulative = 0;
+        for (int level = 0; level < Math.min(maxLevel, timeAtLevel.length); level++) {
+            cumulative += timeAtLevel[level];
+            if (cumulative >= target) return level;
+        }
+        return Math.min(maxLevel, LEVELS);
+    }
+
+    /**
+     * @return One line with the p50, p95 and p99 levels, the maximum and the share of time the system was empty.
+     */
+    public String formatPercentiles() {
+        return String.format("Number in System Percentiles (time-weighted): p50 %s, p95 %s, p99 %s, max %d, P0 %.4f\n",
+                formatLevel(getPercentile(50)), formatLevel(getPercentile(95)), formatLevel(getPercentile(99)),
+                getMaxLevel(), getProbability(0));
+    }
+
+    // A percentile in the overflow bucket is only known to be at least LEVELS
+    private static String formatLevel(int level) {
+        return level >= LEVELS ? ">=" + LEVELS : Integer.toString(level);
+    }
+}
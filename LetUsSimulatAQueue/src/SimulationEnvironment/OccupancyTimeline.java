@@ -0,0 +1,151 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * Step function of the number of customers in the system over time.
+ * The timeline is built once with a single sorted sweep over all arrival and
+ * departure events and is then shared by the chart and the time-average metrics.
+ */
+
+public class OccupancyTimeline {
+    private final double[] times;  // Distinct event times in ascending order
+    private final int[] counts;    // Customers in the system from times[i] until times[i + 1]
+    private final int size;
+
+    OccupancyTimeline(double[] times, int[] counts, int size) {
+        this.times = times;
+        this.counts = counts;
+        this.size = size;
+    }
+
+    /**
+     * Builds the timeline from the arrival and service end times of the simulated customers.
+     *
+     * @param customers The simulated customers.
+     * @return The occupancy timeline of the run.
+     */
+    public static OccupancyTimeline fromStore(CustomerStore customers) {
+        return build(customers.copyArrivalTimes(), customers.copyServiceEndTimes(), customers.size());
+    }
+
+    /**
+     * Builds the timeline by sweeping over the sorted arrival and departure events.
+     * Runs in O(n log n) and sorts the given arrays in place.
+     *
+     * @param arrivals   Arrival time of each customer.
+     * @param departures Departure (service end) time of each customer.
+     * @param n          Number of customers to take from the arrays.
+     * @return The occupancy timeline.
+     */
+    public static OccupancyTimeline build(double[] arrivals, double[] departures, int n) {
+        Arrays.sort(arrivals, 0, n);
+        Arrays.sort(departures, 0, n);
+
+        double[] times = new double[2 * n];
+        int[] counts = new int[2 * n];
+        int size = 0;
+        int a = 0, d = 0, inSystem = 0;
+
+        // Merge both event streams; every distinct time point gets the count right after it
+        while (a < n || d < n) {
+            double time = (d >= n || (a < n && arrivals[a] <= departures[d])) ? arrivals[a] : departures[d];
+            while (a < n && arrivals[a] == time) {
+                inSystem++;
+                a++;
+            }
+            while (d < n && departures[d] == time) {
+                inSystem--;
+                d++;
+            }
+            times[size] = time;
+            counts[size] = inSystem;
+            size++;
+        }
+        return new OccupancyTimeline(times, counts, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getTime(int index) {
+        return times[index];
+    }
+
+    public int getCount(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Finds the step in effect at the given time.
+     *
+     * @param time The time to look up.
+     * @return The index of the last time point at or before the given time, or -1 if it lies before the timeline.
+     */
+    public int indexAt(double time) {
+        int low = 0, high = size - 1, found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= time) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    public double getStartTime() {
+        return size == 0 ? 0 : times[0];
+    }
+
+    public double getEndTime() {
+        return size == 0 ? 0 : times[size - 1];
+    }
+
+    /**
+     * @return The time-average number of customers in the system (L) over the run.
+     */
+    public double timeAverageInSystem() {
+        return timeAverageAbove(0);
+    }
+
+    /**
+     * @param servers Number of servers working in parallel.
+     * @return The time-average number of customers waiting in the queue (Lq) over the run.
+     */
+    public double timeAverageInQueue(int servers) {
+        return timeAverageAbove(servers);
+    }
+
+    /**
+     * @return The time-weighted distribution of the number in system over the run.
+     */
+    public OccupancyHistogram toHistogram() {
+        OccupancyHistogram histogram = new OccupancyHistogram();
+        for (int i = 0; i < size - 1; i++) {
+            histogram.add(counts[i], times[i + 1] - times[i]);
+        }
+        return histogram;
+    }
+
+    // Integrates max(0, count - offset) over the timeline and divides by its length
+    private double timeAverageAbove(int offset) {
+        double horizon = getEndTime() - getStartTime();
+        if (horizon <= 0) return 0;
+        double area = 0;
+        for (int i = 0; i < size - 1; i++) {
+            int excess = counts[i] - offset;
+            if (excess > 0) {
+                area += excess * (times[i + 1] - times[i]);
+            }
+        }
+        return area / horizon;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates the analytic models over whole grids of (λ, μ, c, K) in parallel.
+ * Each (λ, μ, K) row is evaluated by one task that walks the server counts in ascending
+ * order and carries the Erlang B recurrence from one c to the next. With a capacity limit the
+ * states above c form a truncated geometric tail whose sums have a closed form, so with or
+ * without a limit a whole row costs O(max c) plus O(1) per configuration, independent of K.
+ */
+
+public class ParameterSweep {
+
+    /**
+     * Evaluates every combination of the given parameters.
+     *
+     * @param lambdas    Arrival rates.
+     * @param mus        Service rates.
+     * @param servers    Server counts, in ascending order.
+     * @param capacities System capacities, QueueSolver.UNLIMITED for no limit.
+     * @return The metrics of every configuration; configurations with K below c are left as NaN.
+     */
+    public static SweepResult evaluate(double[] lambdas, double[] mus, int[] servers, int[] capacities) {
+        for (int i = 0; i < servers.length; i++) {
+            if (servers[i] <= 0 || (i > 0 && servers[i] <= servers[i - 1])) {
+                throw new IllegalArgumentException("Server counts must be positive and ascending");
+            }
+        }
+        SweepResult result = new SweepResult(lambdas.clone(), mus.clone(), servers.clone(), capacities.clone());
+        int rows = lambdas.length * mus.length * capacities.length;
+
+        Instrumentation.Span span = Instrumentation.start(Instrumentation.Phase.ANALYSIS);
+        try {
+            IntStream.range(0, rows).parallel().forEach(row -> {
+                int capacityIndex = row % capacities.length;
+                int muIndex = (row / capacities.length) % mus.length;
+                int lambdaIndex = row / (capacities.length * mus.length);
+                if (capacities[capacityIndex] == QueueSolver.UNLIMITED) {
+                    evaluateUnlimitedRow(result, lambdaIndex, muIndex, capacityIndex, lambdas[lambdaIndex], mus[muIndex], servers);
+                } else {
+                    evaluateFiniteRow(result, lambdaIndex, muIndex, capacityIndex, lambdas[lambdaIndex], mus[muIndex],
+                            servers, capacities[capacityIndex]);
+                }
+            });
+        } finally {
+            span.close();
+        }
+        return result;
+    }
+
+    // M/M/c for every server count, carrying Erlang B and the loss-system P0 along c
+    private static void evaluateUnlimitedRow(SweepResult result, int lambdaIndex, int muIndex, int capacityIndex,
+                                             double lambda, double mu, int[] servers) {
+        double r = lambda / mu;
+        double erlangB = 1;   // B(0)
+        double lossP0 = 1;    // P0 of the M/M/n/n loss system, the product of (1 - B(k)) for k = 1..n
+        int n = 0;
+        for (int s = 0; s < servers.length; s++) {
+            int c = servers[s];
+            while (n < c) {
+                n++;
+                erlangB = r * erlangB / (n + r * erlangB);
+                lossP0 *= 1 - erlangB;
+            }
+
+            int index = result.index(lambdaIndex, muIndex, s, capacityIndex);
+            double rho = r / c;
+            if (rho >= 1) {
+                store(result, index, 0, 0, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, lambda, mu);
+                continue;
+            }
+            // Erlang C from Erlang B, then the usual M/M/c measures
+            double erlangC = c * erlangB / (c - r * (1 - erlangB));
+            double lq = erlangC * rho / (1 - rho);
+            double p0 = lossP0 / (1 + erlangB * rho / (1 - rho));
+            store(result, index, p0, 0, lq + r, lq, lambda, mu);
+        }
+    }
+
+    // M/M/c/K for every server count, carrying Erlang B and the loss-system P0 along c.
+    // Relative to the loss system of c servers, the states up to c have mean r (1 - B), and the
+    // states c + j for j = 0..K-c carry the weights B ρ^j. For ρ > 1 every weight is divided by
+    // ρ^(K-c), which turns the tail into the decreasing series B (1/ρ)^i for i = K-c-j.
+    private static void evaluateFiniteRow(SweepResult result, int lambdaIndex, int muIndex, int capacityIndex,
+                                          double lambda, double mu, int[] servers, int capacity) {
+        double r = lambda / mu;
+        double erlangB = 1;
+        double lossP0 = 1;
+        int n = 0;
+        for (int s = 0; s < servers.length; s++) {
+            int c = servers[s];
+            int index = result.index(lambdaIndex, muIndex, s, capacityIndex);
+            if (capacity < c) {
+                // Infeasible configuration; store would report the W and Wq of an idle system
+                store(result, index, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, mu);
+                result.w[index] = Double.NaN;
+                result.wq[index] = Double.NaN;
+                continue;
+            }
+            while (n < c) {
+                n++;
+                erlangB = r * erlangB / (n + r * erlangB);
+                lossP0 *= 1 - erlangB;
+            }
+
+            double rho = r / c;
+            int m = capacity - c;
+            double logRatio = -Math.abs(Math.log(rho));                 // log of the tail ratio, at most 0
+            double scale = m == 0 ? 1 : Math.exp(m * logRatio);         // ρ^m, or its inverse for ρ > 1
+            double tail = geometricSum(logRatio, m);                    // sum of the tail weights over B
+            double tailJ = tail * geometricMean(logRatio, m);           // sum of i times the tail weights
+            double upper = 1;                                           // weight of the top state over B
+            if (rho > 1) {
+                tailJ = m * tail - tailJ;                               // i counts down from the top state
+            } else {
+                upper = scale;
+                scale = 1;
+            }
+
+            double sum = scale * (1 - erlangB) + erlangB * tail;
+            double sumN = scale * r * (1 - erlangB) + erlangB * (c * (tail - scale) + tailJ);
+            double sumQ = erlangB * tailJ;
+            double pk = erlangB * upper / sum;
+            store(result, index, lossP0 * scale / sum, pk, sumN / sum, sumQ / sum, lambda * (1 - pk), mu);
+        }
+    }
+
+    // Sum of e^(jx) for j = 0..m, with x at most 0, without cancellation as x approaches 0
+    private static double geometricSum(double x, int m) {
+        if (x == 0) return m + 1.0;
+        return Math.expm1((m + 1.0) * x) / Math.expm1(x);
+    }
+
+    // Mean of j under the weights e^(jx) for j = 0..m, with x at most 0
+    private static double geometricMean(double x, int m) {
+        if (x == 0) return m / 2.0;
+        return bernoulli(x) - (m + 1.0) * bernoulli((m + 1.0) * x);
+    }
+
+    // 1 / (e^(-x) - 1) + 1 / x, whose two poles at 0 cancel; a series is used near 0
+    private static double bernoulli(double x) {
+        if (Math.abs(x) < 1e-2) return -0.5 - x / 12 + x * x * x / 720;
+        return 1 / Math.expm1(-x) + 1 / x;
+    }
+
+    // Stores one configuration, deriving W and Wq with Little's law
+    private static void store(SweepResult result, int index, double p0, double pk, double l, double lq,
+                              double lambdaEff, double mu) {
+        result.p0[index] = p0;
+        result.pk[index] = pk;
+        result.l[index] = l;
+        result.lq[index] = lq;
+        result.lambdaEff[index] = lambdaEff;
+        result.w[index] = lambdaEff > 0 ? l / lambdaEff : 1 / mu;
+        result.wq[index] = lambdaEff > 0 ? lq / lambdaEff : 0;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Hands the occupancy timeline of a detailed single-server run to its monitor while the run is still going.
+ * A FIFO single server lets its customers leave in arrival order, so both event streams are already sorted
+ * and everything up to the latest arrival is final. Each update merges only the events since the previous
+ * one and downsamples them to a fixed number of buckets, so the chart receives a few hundred points per
+ * update however many customers it covers. Updates are at least MIN_INTERVAL apart.
+ */
+
+class PartialTimeline {
+    private static final int BUCKETS = 100;                 // Buckets per update
+    private static final long MIN_INTERVAL = 250_000_000L;  // Nanoseconds between two updates
+
+    private final CustomerStore customers;
+    private final ProgressMonitor monitor;
+    private int arrivals, departures;  // Customers whose arrival and departure were already handed over
+    private int inSystem;              // Customers in the system after the last handed-over event
+    private double lastTime;           // Time of that event
+    private long lastUpdate = System.nanoTime();
+
+    PartialTimeline(CustomerStore customers, ProgressMonitor monitor) {
+        this.customers = customers;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Hands over the events up to the arrival of the newest customer, unless the last update is too recent.
+     *
+     * @param added Number of customers in the store so far.
+     */
+    void update(int added) {
+        long now = System.nanoTime();
+        if (added <= arrivals || now - lastUpdate < MIN_INTERVAL) return;
+        lastUpdate = now;
+
+        // Merge the new events, starting from the step the previous update ended with
+        double cutoff = customers.getArrivalTime(added - 1);
+        int capacity = 1 + (added - arrivals) + (added - departures);
+        double[] times = new double[capacity];
+        int[] counts = new int[capacity];
+        times[0] = lastTime;
+        counts[0] = inSystem;
+        int size = 1;
+        while (arrivals < added || (departures < added && customers.getServiceEndTime(departures) <= cutoff)) {
+            double arrival = arrivals < added ? customers.getArrivalTime(arrivals) : Double.POSITIVE_INFINITY;
+            double departure = departures < added ? customers.getServiceEndTime(departures) : Double.POSITIVE_INFINITY;
+            double time = Math.min(arrival, departure);
+            while (arrivals < added && customers.getArrivalTime(arrivals) == time) {
+                inSystem++;
+                arrivals++;
+            }
+            while (departures < added && customers.getServiceEndTime(departures) == time) {
+                inSystem--;
+                departures++;
+            }
+            times[size] = time;
+            counts[size] = inSystem;
+            size++;
+        }
+        OccupancyTimeline piece = new OccupancyTimeline(times, counts, size);
+        monitor.timeline(ChartDownsampler.downsample(piece, lastTime, times[size - 1], BUCKETS));
+        lastTime = times[size - 1];
+    }
+}
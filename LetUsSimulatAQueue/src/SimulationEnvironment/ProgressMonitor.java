@@ -0,0 +1,100 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives progress reports from long-running simulations and tells them when to stop.
+ */
+
+public interface ProgressMonitor {
+    /**
+     * Monitor that ignores progress and never cancels.
+     */
+    ProgressMonitor NONE = new ProgressMonitor() {
+        @Override
+        public void progress(long completed, long total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Reports how much of the work is done.
+     *
+     * @param completed Units of work completed so far.
+     * @param total     Total units of work.
+     */
+    void progress(long completed, long total);
+
+    /**
+     * @return True if the simulation should stop as soon as possible.
+     */
+    boolean isCancelled();
+
+    /**
+     * Receives the number in system of a detailed run as soon as it is final, so a chart can follow the run.
+     * The pieces are downsampled, come in time order and each starts where the previous one ended.
+     * Most monitors ignore them.
+     *
+     * @param piece The number in system over the next stretch of the run.
+     */
+    default void timeline(OccupancyTimeline piece) {
+    }
+
+    /**
+     * Reports the progress of one step of a longer run as progress through the whole run.
+     *
+     * @param monitor The monitor of the whole run.
+     * @param before  Units of work done before the step.
+     * @param total   Total units of work of the whole run.
+     * @return A monitor to hand to the step.
+     */
+    static ProgressMonitor offset(ProgressMonitor monitor, long before, long total) {
+        return new ProgressMonitor() {
+            @Override
+            public void progress(long completed, long stepTotal) {
+                monitor.progress(before + Math.min(completed, stepTotal), total);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return monitor.isCancelled();
+            }
+        };
+    }
+
+    /**
+     * Reports the progress of one of several steps that run at the same time, such as parallel
+     * replications, as progress through the whole run. Every step needs a monitor of its own.
+     *
+     * @param monitor   The monitor of the whole run.
+     * @param completed Units of work done by all steps so far, shared between their monitors.
+     * @param total     Total units of work of the whole run.
+     * @return A monitor to hand to the step.
+     */
+    static ProgressMonitor concurrent(ProgressMonitor monitor, AtomicLong completed, long total) {
+        return new ProgressMonitor() {
+            private long reported;
+
+            @Override
+            public void progress(long done, long stepTotal) {
+                // Adds what this step did since its last report to the count over all steps
+                long step = Math.min(done, stepTotal);
+                monitor.progress(completed.addAndGet(step - reported), total);
+                reported = step;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return monitor.isCancelled();
+            }
+        };
+    }
+}
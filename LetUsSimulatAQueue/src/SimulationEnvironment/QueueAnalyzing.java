@@ -31,6 +31,10 @@ public class QueueAnalyzing {
         TextField serversField = new TextField();
         Label capacityLabel = new Label("System capacity (K):");
         TextField capacityField = new TextField();
+        Label initialLabel = new Label("Customers at t = 0 (optional):");
+        TextField initialField = new TextField();
+        Label horizonLabel = new Label("Time horizon t (optional, needs K):");
+        TextField horizonField = new TextField();
 
         // Button to calculate queue metrics
         Button calculateButton = new Button("Calculate");
@@ -41,6 +45,7 @@ public class QueueAnalyzing {
 
         // Event handler for the Calculate button
         calculateButton.setOnAction(e -> {
+            Instrumentation.Span span = Instrumentation.start(Instrumentation.Phase.ANALYSIS);
             try {
                 // Parse user inputs
                 double lambda = Double.parseDouble(lambdaField.getText());
@@ -67,6 +72,14 @@ public class QueueAnalyzing {
                 }
 
 
+                // Follow a finite-capacity model from its initial state up to the horizon
+                if (!horizonField.getText().isEmpty()) {
+                    if (k == Integer.MAX_VALUE) throw new IllegalArgumentException("Transient analysis needs a finite capacity (K)");
+                    double horizon = Double.parseDouble(horizonField.getText());
+                    int initial = initialField.getText().isEmpty() ? 0 : Integer.parseInt(initialField.getText());
+                    result += "\n" + transientAnalysis(lambda, mu, c, k, initial, horizon);
+                }
+
                 // Warn if the system is unstable
                 if (rho >= 1) {
                     System.out.println("System is unstable (rho >= 1). Results may not be meaningful.");
@@ -75,6 +88,10 @@ public class QueueAnalyzing {
                 else resultArea.setText(result);
             } catch (NumberFormatException ex) {
                 resultArea.setText("Please enter valid numerical values.");
+            } catch (IllegalArgumentException ex) {
+                resultArea.setText(ex.getMessage() + ".");
+            } finally {
+                span.close();
             }
         });
 
@@ -89,140 +106,45 @@ public class QueueAnalyzing {
         grid.add(serversField, 1, 2);
         grid.add(capacityLabel, 0, 3);
         grid.add(capacityField, 1, 3);
-        grid.add(calculateButton, 0, 4);
-        grid.add(resultArea, 0, 5, 2, 1);
+        grid.add(initialLabel, 0, 4);
+        grid.add(initialField, 1, 4);
+        grid.add(horizonLabel, 0, 5);
+        grid.add(horizonField, 1, 5);
+        grid.add(calculateButton, 0, 6);
+        grid.add(resultArea, 0, 7, 2, 1);
 
         return grid;
     }
 
 
     public static String mm1(double lambda, double mu) {
-        double rho = lambda / mu;
-        double l = rho / (1 - rho);
-        double lq = Math.pow(rho, 2) / (1 - rho);
-        double w = 1 / (mu - lambda);
-        double wq = rho / (mu - lambda);
-
-        return String.format("M/M/1 Model:\nL: %.3f\nLq: %.3f\nW: %.3f\nWq: %.3f\n", l, lq, w, wq);
+        return QueueSolver.mm1(lambda, mu).format();
     }
 
     public static String mm1k(double lambda, double mu, int k) {
-        double rho = lambda / mu;
-        double sum = 0;
-        for (int n = 0; n <= k; n++) {
-            sum += Math.pow(rho, n);
-        }
-        double pk = 0;
-        if (rho != 1) {
-            pk = Math.pow(rho, k) * ((1 - rho) / (1 - Math.pow(rho, k + 1)));
-        } else {
-            pk = 1.0 / (k + 1);
-        }
-        double l = 0;
-        if (rho != 1) {
-            l = rho * (1 - ((k + 1) * Math.pow(rho, k)) + (k * Math.pow(rho, k + 1))) /
-                    ((1 - rho) * (1 - Math.pow(rho, k + 1)));
-        } else {
-            l = (double) k / 2;
-        }
-        double lambdaEff = lambda * (1 - pk);
-        double lq = l - (lambdaEff / mu);
-        double w = l / lambdaEff;
-        double wq = lq / lambdaEff;
-
-        return String.format("M/M/1/K Model:\nL: %.3f\nLq: %.3f\nW: %.3f\nWq: %.3f\n", l, lq, w, wq);
+        return QueueSolver.mm1k(lambda, mu, k).format();
     }
 
     public static String mmc(double lambda, double mu, int c) {
-        double r = lambda / mu;
-        double rho = r / c;
-        double ci = (rho < 1) ? c - r : 0; // Idle capacity
-        if (rho >= 1) {
+        QueueMetrics metrics = QueueSolver.mmc(lambda, mu, c);
+        if (!metrics.isStable()) {
             System.out.println("System is unstable (rho >= 1). Results may not be meaningful.");
         }
-        double p0 = calculateP0(lambda, mu, c);
-        double lq = (Math.pow(r, c) * rho * p0) / (factorial(c) * Math.pow(1 - rho, 2));
-        double l = lq + r;
-        double wq = lq / lambda;
-        double w = wq + 1 / mu;
-
-        return String.format("M/M/c Model:\nL: %.3f\nLq: %.3f\nW: %.3f\nWq: %.3f\nCi: %.3f\n", l, lq, w, wq, ci);
+        return metrics.format();
     }
 
-
     public static String mmck(double lambda, double mu, int c, int k) {
-        double r = lambda / mu;
-        double rho = r / c;
-        double ci = (rho < 1) ? c - r : 0; // Idle capacity
-
-        if (rho >= 1) {
-            System.out.println("System is unstable (rho >= 1). Results may not be meaningful.");
-        }
-
-        double p0 = calculateP0(lambda, mu, c, k);
-        double pk = (Math.pow(r, k) / (Math.pow(c, k - c) * factorial(c))) * p0;
-
-        // Calculate Lq
-        double lq = 0;
-        if (rho != 1) {
-            lq = (rho * Math.pow(r, c) * p0) /
-                    (factorial(c) * Math.pow(1 - rho, 2)) *
-                    (1 - Math.pow(rho, k - c + 1) - (1 - rho) *
-                            (k - c + 1) * Math.pow(rho, k - c));
-
-        } else {
-            lq = 0; // Handle rho = 1 case.
-        }
-
-        // Calculate L
-        double sumL = 0;
-        for (int n = 0; n < c; n++) {
-            sumL += (c - n) * Math.pow(r, n) / factorial(n);
-        }
-        double l = lq + c - p0 * sumL;
-
-        // Calculate W and Wq
-        double lambdaEff = lambda * (1 - pk);
-        double w = l / lambdaEff;
-        double wq = lq / lambdaEff;
-
-        return String.format("M/M/c/K Model:\nL: %.3f\nLq: %.3f\nW: %.3f\nWq: %.3f\nCi: %.3f\n", l, lq, w, wq, ci);
+        return QueueSolver.mmck(lambda, mu, c, k).format();
     }
 
-    private static double calculateP0(double lambda, double mu, int c) {
-        double r = lambda / mu;
-        double p0Inverse = 0;
-        for (int n = 0; n < c; n++) {
-            p0Inverse += Math.pow(r, n) / factorial(n);
-        }
-        p0Inverse += (Math.pow(r, c) / factorial(c)) * (c / (c - r));
-        return 1 / p0Inverse;
-    }
-
-
-    private static double calculateP0(double lambda, double mu, int c, int k) {
-        double r = lambda / mu;
-        double rho = r / c;
-        double sum1 = 0;
-        for (int n = 0; n < c; n++) {
-            sum1 += Math.pow(r, n) / factorial(n);
-        }
-        if (rho != 1) {
-            double sum2 = (Math.pow(r, c) / factorial(c)) * (1 - Math.pow(rho, k - c + 1)) / (1 - rho);
-            return 1 / (sum1 + sum2);
-        } else {
-            double sum2 = (Math.pow(r, c) / factorial(c)) * (k - c + 1);
-            return 1 / (sum1 + sum2);
-        }
-    }
-
-
-    private static long factorial(int n) {
-        if (n == 0 || n == 1) return 1;
-        long fact = 1;
-        for (int i = 2; i <= n; i++) {
-            fact *= i;
+    /**
+     * Formats the transient metrics at ten evenly spaced times up to the horizon.
+     */
+    public static String transientAnalysis(double lambda, double mu, int c, int k, int initialCustomers, double horizon) {
+        double[] times = new double[11];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = horizon * i / (times.length - 1);
         }
-        return fact;
+        return TransientSolver.solve(lambda, mu, c, k, initialCustomers, times).format();
     }
 }
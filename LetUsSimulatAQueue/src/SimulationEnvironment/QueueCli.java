@@ -0,0 +1,266 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line entry point that runs simulations and analyses without the JavaFX GUI.
+ *
+ * <pre>
+ * simulate --interarrival 1 --service 0.9 --customers 1000000 [--servers c] [--capacity K]
+ *          [--replications n] [--seed s] [--detailed] [--export customers.csv|customers.bin] [--precision p]
+ *          [--checkpoint run.ckpt] [--checkpoint-every n]
+ * simulate --trace arrivals.csv [--customers n] [--detailed] [--export file] [--precision p] [--checkpoint run.ckpt]
+ * compare  --interarrival 1 --service 0.8 --service-b 0.9 --customers 100000 --replications 20 [--interarrival-b t]
+ *          [--seed s] [--crn] [--antithetic]
+ * analyze  --lambda 0.9 --mu 1 [--servers c] [--capacity K]
+ * transient --lambda 0.9 --mu 1 --capacity K --until t [--servers c] [--initial n] [--points m]
+ * staff    --lambda 950 --mu 1 --target-wq 0.01 [--max-servers n]
+ * network  --file network.txt --arrivals 1000000 [--replications n] [--seed s]
+ * network  --tandem 100 --lambda 0.9 --mu 1 [--servers c] --arrivals 1000000 [--replications n] [--seed s]
+ * serve    [--port 8080] [--max-concurrent n] [--cache-size n]
+ * </pre>
+ * {@code --detailed} streams the per-customer table to standard output as CSV and
+ * {@code --export} writes it to a file instead; both keep every customer of an M/M/1 run.
+ * {@code --checkpoint} saves a summary-only run every {@code --checkpoint-every} customers (default 10,000,000)
+ * and resumes it from the file when the same command is run again.
+ * {@code network} reads the stations and routes of a Jackson network as described in {@link JacksonNetwork#read}.
+ * {@code serve} starts the local HTTP/JSON job service described in {@link JobService} and keeps running.
+ * {@code --profile} on any command prints the instrumentation counters of the run to standard error.
+ */
+
+public class QueueCli {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            System.exit(2);
+        }
+        try {
+            Map<String, String> options = parseOptions(args);
+            if (options.containsKey("profile")) Instrumentation.setEnabled(true);
+            switch (args[0]) {
+                case "simulate" -> simulate(options);
+                case "compare" -> compare(options);
+                case "analyze" -> analyze(options);
+                case "transient" -> transientAnalysis(options);
+                case "staff" -> staff(options);
+                case "network" -> network(options);
+                case "serve" -> serve(options);
+                default -> {
+                    printUsage();
+                    System.exit(2);
+                }
+            }
+            if (Instrumentation.isEnabled()) {
+                System.out.flush();
+                System.err.print(Instrumentation.format());
+            }
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(2);
+        } catch (UncheckedIOException ex) {
+            System.err.println("Error: " + ex.getMessage() + ": " + ex.getCause().getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void simulate(Map<String, String> options) {
+        if (options.containsKey("trace")) {
+            // Replay the whole trace unless a limit is given
+            boolean detailed = options.containsKey("detailed") || options.containsKey("export");
+            long limit = options.containsKey("customers") ? Long.parseLong(options.get("customers"))
+                    : detailed ? Integer.MAX_VALUE : Long.MAX_VALUE;
+            SimulationConfig config = withCheckpoint(SimulationConfig.replay(Path.of(options.get("trace")), limit, detailed)
+                    .withRelativePrecision(Double.parseDouble(options.getOrDefault("precision", "0"))), options);
+            printResult(new QueueSimulator().run(config, ProgressMonitor.NONE), options);
+            return;
+        }
+        SimulationConfig config = withCheckpoint(new SimulationConfig(
+                requireDouble(options, "interarrival"),
+                requireDouble(options, "service"),
+                Long.parseLong(require(options, "customers")),
+                Integer.parseInt(options.getOrDefault("servers", "1")),
+                options.containsKey("capacity") ? Integer.parseInt(options.get("capacity")) : QueueSolver.UNLIMITED,
+                Integer.parseInt(options.getOrDefault("replications", "1")),
+                options.containsKey("detailed") || options.containsKey("export"),
+                options.containsKey("seed") ? Long.parseLong(options.get("seed")) : System.nanoTime())
+                .withRelativePrecision(Double.parseDouble(options.getOrDefault("precision", "0"))), options);
+        printResult(new QueueSimulator().run(config, ProgressMonitor.NONE), options);
+    }
+
+    private static SimulationConfig withCheckpoint(SimulationConfig config, Map<String, String> options) {
+        if (!options.containsKey("checkpoint")) return config;
+        return config.withCheckpoint(Path.of(options.get("checkpoint")),
+                Long.parseLong(options.getOrDefault("checkpoint-every", "10000000")));
+    }
+
+    // Prints the report, preceded by or exported with the per-customer table if the run kept the customers
+    private static void printResult(SimulationResult result, Map<String, String> options) {
+        CustomerStore customers = result.getCustomers();
+        if (customers != null) {
+            String export = options.get("export");
+            try {
+                if (export != null) {
+                    CustomerExporter.export(customers, Path.of(export));
+                    System.out.printf("Exported %d customers to %s%n%n", customers.size(), export);
+                } else {
+                    System.out.flush();
+                    CustomerExporter.writeCsv(customers, Channels.newChannel(System.out));
+                    System.out.println();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot export the customers to " + (export != null ? export : "standard output"), ex);
+            }
+        }
+        System.out.print(result.getReport());
+    }
+
+    private static void compare(Map<String, String> options) {
+        double meanInterarrival = requireDouble(options, "interarrival");
+        double meanService = requireDouble(options, "service");
+        long customers = Long.parseLong(require(options, "customers"));
+        int replications = Integer.parseInt(require(options, "replications"));
+        long seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : System.nanoTime();
+        SimulationConfig a = new SimulationConfig(meanInterarrival, meanService, customers, 1, QueueSolver.UNLIMITED,
+                replications, false, seed);
+        SimulationConfig b = new SimulationConfig(
+                Double.parseDouble(options.getOrDefault("interarrival-b", String.valueOf(meanInterarrival))),
+                Double.parseDouble(options.getOrDefault("service-b", String.valueOf(meanService))),
+                customers, 1, QueueSolver.UNLIMITED, replications, false, seed);
+        ComparisonSummary summary = ComparisonRunner.compare(a, b, options.containsKey("crn"),
+                options.containsKey("antithetic"), 0.95, ProgressMonitor.NONE);
+        System.out.print(summary.formatSummary());
+    }
+
+    private static void analyze(Map<String, String> options) {
+        QueueMetrics metrics = QueueSolver.solve(
+                requireDouble(options, "lambda"),
+                requireDouble(options, "mu"),
+                Integer.parseInt(options.getOrDefault("servers", "1")),
+                options.containsKey("capacity") ? Integer.parseInt(options.get("capacity")) : QueueSolver.UNLIMITED);
+        if (!metrics.isStable()) {
+            System.out.println("System is unstable (ρ ≥ 1). Results may not be meaningful.");
+        }
+        System.out.print(metrics.format());
+    }
+
+    private static void transientAnalysis(Map<String, String> options) {
+        // Evenly spaced times from 0 to the horizon
+        double until = requireDouble(options, "until");
+        int points = Integer.parseInt(options.getOrDefault("points", "10"));
+        if (points <= 0) throw new IllegalArgumentException("Number of points must be positive");
+        double[] times = new double[points + 1];
+        for (int i = 0; i <= points; i++) {
+            times[i] = until * i / points;
+        }
+        TransientDistribution distribution = TransientSolver.solve(
+                requireDouble(options, "lambda"),
+                requireDouble(options, "mu"),
+                Integer.parseInt(options.getOrDefault("servers", "1")),
+                Integer.parseInt(require(options, "capacity")),
+                Integer.parseInt(options.getOrDefault("initial", "0")),
+                times);
+        System.out.print(distribution.format());
+    }
+
+    private static void staff(Map<String, String> options) {
+        double lambda = requireDouble(options, "lambda");
+        double mu = requireDouble(options, "mu");
+        int servers = StaffingOptimizer.minServersForWaitTime(lambda, mu, requireDouble(options, "target-wq"),
+                Integer.parseInt(options.getOrDefault("max-servers", "1000000")));
+        if (servers == StaffingOptimizer.UNREACHABLE) {
+            System.out.println("No number of servers up to the limit meets the target.");
+        } else {
+            System.out.printf("Servers needed: %d%n", servers);
+            System.out.print(QueueSolver.mmc(lambda, mu, servers).format());
+        }
+    }
+
+    private static void network(Map<String, String> options) {
+        JacksonNetwork network;
+        if (options.containsKey("file")) {
+            try {
+                network = JacksonNetwork.read(Path.of(options.get("file")));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read network " + options.get("file"), ex);
+            }
+        } else {
+            network = JacksonNetwork.tandem(
+                    Integer.parseInt(require(options, "tandem")),
+                    requireDouble(options, "lambda"),
+                    requireDouble(options, "mu"),
+                    Integer.parseInt(options.getOrDefault("servers", "1")));
+        }
+        NetworkSummary summary = NetworkRunner.run(network,
+                Long.parseLong(require(options, "arrivals")),
+                Integer.parseInt(options.getOrDefault("replications", "10")),
+                options.containsKey("seed") ? Long.parseLong(options.get("seed")) : System.nanoTime(),
+                0.95, ProgressMonitor.NONE);
+        System.out.print(summary.formatSummary());
+    }
+
+    private static void serve(Map<String, String> options) {
+        int port = Integer.parseInt(options.getOrDefault("port", "8080"));
+        try {
+            JobService service = new JobService(port,
+                    Integer.parseInt(options.getOrDefault("max-concurrent", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                    Integer.parseInt(options.getOrDefault("cache-size", "10000")));
+            service.start();
+            System.out.printf("Job service listening on http://127.0.0.1:%d/%n", service.getPort());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot listen on port " + port, ex);
+        }
+    }
+
+    // Reads "--name value" pairs and "--flag" switches after the command
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            String name = args[i].substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) throw new IllegalArgumentException("Missing option --" + name);
+        return value;
+    }
+
+    private static double requireDouble(Map<String, String> options, String name) {
+        return Double.parseDouble(require(options, name));
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage:");
+        System.err.println("  simulate --interarrival <1/λ> --service <1/μ> --customers <n> [--servers <c>] [--capacity <K>]");
+        System.err.println("           [--replications <n>] [--seed <s>] [--detailed] [--export <file.csv|file.bin>]");
+        System.err.println("           [--precision <relative half-width>] [--checkpoint <file>] [--checkpoint-every <n>]");
+        System.err.println("  simulate --trace <file.csv|file.bin> [--customers <n>] [--detailed] [--export <file>] [--precision <p>]");
+        System.err.println("           [--checkpoint <file>] [--checkpoint-every <n>]");
+        System.err.println("  compare  --interarrival <1/λ> --service <1/μ> [--interarrival-b <1/λ>] [--service-b <1/μ>]");
+        System.err.println("           --customers <n> --replications <n> [--seed <s>] [--crn] [--antithetic]");
+        System.err.println("  analyze  --lambda <λ> --mu <μ> [--servers <c>] [--capacity <K>]");
+        System.err.println("  transient --lambda <λ> --mu <μ> --capacity <K> --until <t> [--servers <c>] [--initial <n>] [--points <m>]");
+        System.err.println("  staff    --lambda <λ> --mu <μ> --target-wq <Wq> [--max-servers <n>]");
+        System.err.println("  network  (--file <network.txt> | --tandem <stations> --lambda <λ> --mu <μ> [--servers <c>])");
+        System.err.println("           --arrivals <n> [--replications <n>] [--seed <s>]");
+        System.err.println("  serve    [--port <port>] [--max-concurrent <n>] [--cache-size <n>]");
+        System.err.println("Any command accepts --profile to print time per phase, events per second and allocation.");
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Steady-state performance measures of a Markovian queueing model.
+ */
+
+public class QueueMetrics {
+    private final double lambda;
+    private final double mu;
+    private final int servers;
+    private final int capacity;
+    private final double p0;
+    private final double pk;
+    private final double l;
+    private final double lq;
+    private final double w;
+    private final double wq;
+    private final double lambdaEff;
+
+    public QueueMetrics(double lambda, double mu, int servers, int capacity, double p0, double pk,
+                        double l, double lq, double w, double wq, double lambdaEff) {
+        this.lambda = lambda;
+        this.mu = mu;
+        this.servers = servers;
+        this.capacity = capacity;
+        this.p0 = p0;
+        this.pk = pk;
+        this.l = l;
+        this.lq = lq;
+        this.w = w;
+        this.wq = wq;
+        this.lambdaEff = lambdaEff;
+    }
+
+    public double getLambda() {
+        return lambda;
+    }
+
+    public double getMu() {
+        return mu;
+    }
+
+    public int getServers() {
+        return servers;
+    }
+
+    /**
+     * @return The system capacity K, or QueueSolver.UNLIMITED.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Server utilization ρ = λ / (cμ).
+     */
+    public double getRho() {
+        return lambda / (mu * servers);
+    }
+
+    /**
+     * @return Idle capacity c - λ/μ, or 0 if the servers are saturated.
+     */
+    public double getIdleCapacity() {
+        double r = lambda / mu;
+        return r < servers ? servers - r : 0;
+    }
+
+    /**
+     * @return False if the queue grows without bound (infinite capacity and ρ ≥ 1).
+     */
+    public boolean isStable() {
+        return capacity != QueueSolver.UNLIMITED || getRho() < 1;
+    }
+
+    /**
+     * @return Probability that the system is empty.
+     */
+    public double getP0() {
+        return p0;
+    }
+
+    /**
+     * @return Probability that the system is full, i.e. that an arrival is blocked. Zero without a capacity limit.
+     */
+    public double getPk() {
+        return pk;
+    }
+
+    public double getL() {
+        return l;
+    }
+
+    public double getLq() {
+        return lq;
+    }
+
+    public double getW() {
+        return w;
+    }
+
+    public double getWq() {
+        return wq;
+    }
+
+    /**
+     * @return Rate of customers actually entering the system, λ(1 - P_K).
+     */
+    public double getLambdaEff() {
+        return lambdaEff;
+    }
+
+    /**
+     * Formats the metrics for display, with the blocking measures for finite-capacity models
+     * and the idle capacity for multi-server models.
+     *
+     * @return The formatted metrics.
+     */
+    public String format() {
+        boolean unlimited = capacity == QueueSolver.UNLIMITED;
+        String model = servers == 1 ? (unlimited ? "M/M/1" : "M/M/1/K") : (unlimited ? "M/M/c" : "M/M/c/K");
+        StringBuilder result = new StringBuilder(String.format("%s Model:\nL: %.3f\nLq: %.3f\nW: %.3f\nWq: %.3f\nP0: %.4f\n",
+                model, l, lq, w, wq, p0));
+        if (!unlimited) {
+            result.append(String.format("PK: %.4f\nλ_eff: %.3f\n", pk, lambdaEff));
+        }
+        if (servers > 1) {
+            result.append(String.format("Ci: %.3f\n", getIdleCapacity()));
+        }
+        return result.toString();
+    }
+}
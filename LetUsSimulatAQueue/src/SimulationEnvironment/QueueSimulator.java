@@ -0,0 +1,267 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Headless entry point for running simulations.
+ * The simulator holds no state between runs, so one instance can run any number of
+ * simulations concurrently, e.g. from a thread pool, without loading any JavaFX classes.
+ */
+
+public class QueueSimulator {
+    private static final int PROGRESS_INTERVAL = 1 << 16; // Customers between progress reports
+    private static final double CONFIDENCE = 0.95;         // Confidence level of replicated runs
+    private static final int BATCH_SIZE = 1024;            // Customers whose times are generated together
+
+    /**
+     * Runs a simulation on the calling thread.
+     *
+     * @param config  The run to perform.
+     * @param monitor Receives progress and may cancel the run.
+     * @return The result of the run.
+     * @throws CancellationException If the monitor cancels the run.
+     * @throws UncheckedIOException  If the trace of a replay or the checkpoint cannot be read or written.
+     */
+    public SimulationResult run(SimulationConfig config, ProgressMonitor monitor) {
+        try (Instrumentation.Span span = Instrumentation.start(Instrumentation.Phase.SIMULATION)) {
+            if (config.getTrace() != null) {
+                return runTrace(config, monitor, span);
+            } else if (config.getRelativePrecision() > 0) {
+                return runAdaptive(config, randomSource(config), monitor, span);
+            } else if (config.isMultiServer()) {
+                return runEngine(config, monitor, span);
+            } else if (config.getReplications() > 1) {
+                return runReplications(config, monitor, span);
+            } else if (config.isKeepCustomers()) {
+                return runDetailed(config, randomSource(config), monitor, span);
+            } else {
+                return runStreaming(config, randomSource(config), monitor, span);
+            }
+        }
+    }
+
+    /**
+     * Runs a simulation on the given executor.
+     *
+     * @param config   The run to perform.
+     * @param executor Executor that runs the simulation.
+     * @return A future completed with the result of the run.
+     */
+    public CompletableFuture<SimulationResult> runAsync(SimulationConfig config, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> run(config, ProgressMonitor.NONE), executor);
+    }
+
+    // Exponential inter-arrival and service times drawn from a stream seeded by the configuration
+    private CustomerSource randomSource(SimulationConfig config) {
+        return CustomerSource.exponential(config.getMeanInterarrival(), config.getMeanService(),
+                new Xoshiro256PlusPlus(config.getSeed()));
+    }
+
+    // Single-server run whose times are replayed from a trace file
+    private SimulationResult runTrace(SimulationConfig config, ProgressMonitor monitor, Instrumentation.Span span) {
+        try (TraceReader trace = TraceReader.open(config.getTrace())) {
+            if (config.isKeepCustomers()) {
+                return runDetailed(config, trace, monitor, span);
+            }
+            SimulationResult result = config.getRelativePrecision() > 0
+                    ? runAdaptive(config, trace, monitor, span)
+                    : runStreaming(config, trace, monitor, span);
+            if (trace.getRecordsRead() == 0) throw new IllegalArgumentException("Trace holds no records");
+            return result;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read trace " + config.getTrace(), ex);
+        }
+    }
+
+    // Single-server run that keeps every customer for the per-customer table, the export and the chart
+    private SimulationResult runDetailed(SimulationConfig config, CustomerSource source, ProgressMonitor monitor,
+                                         Instrumentation.Span span) {
+        int numCustomers = (int) config.getNumCustomers();
+
+        // Batches of inter-arrival and service times taken from the source
+        double[] interarrivalBuffer = new double[BATCH_SIZE];
+        double[] serviceBuffer = new double[BATCH_SIZE];
+
+        // Column store holding all the customers of this run, reserved up front so the loop never has to grow it.
+        // A replay may hold fewer records than the limit, so its store grows as records come in.
+        CustomerStore customers = new CustomerStore();
+        if (config.getTrace() == null) {
+            customers.ensureCapacity(numCustomers);
+        }
+        PartialTimeline partialTimeline = new PartialTimeline(customers, monitor);
+
+        // Initialize variables for tracking simulation metrics
+        double currentTime = 0; // Tracks the current time in the simulation
+        double lastServiceEnd = 0; // Tracks when the last customer's service ended
+        double totalWaitTime = 0, totalTimeInSystem = 0, totalServiceTime = 0, totalIdleTime = 0; // Accumulators for metrics
+        LogHistogram waitTimeHistogram = new LogHistogram(), timeInSystemHistogram = new LogHistogram(); // Tail metrics
+        boolean timed = span.isActive(); // Time the generation of the batches apart from the simulation
+        long generationTime = 0;
+
+        // Loop through the number of customers to simulate
+        for (int i = 0; i < numCustomers; i++) {
+            if (i % PROGRESS_INTERVAL == 0) {
+                if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                monitor.progress(i, numCustomers);
+                partialTimeline.update(i);
+            }
+
+            // Take the inter-arrival and service times from the source a batch at a time
+            int slot = i % BATCH_SIZE;
+            if (slot == 0) {
+                int wanted = Math.min(BATCH_SIZE, numCustomers - i);
+                long started = timed ? System.nanoTime() : 0;
+                int batch = source.fill(interarrivalBuffer, serviceBuffer, wanted);
+                if (timed) generationTime += System.nanoTime() - started;
+                if (batch < wanted) {
+                    numCustomers = i + batch; // The trace ended before the limit
+                    if (batch == 0) break;
+                }
+            }
+            double interarrivalTime = interarrivalBuffer[slot];
+            double serviceTime = serviceBuffer[slot];
+
+            // Calculate the customer's arrival time
+            double arrivalTime = currentTime + interarrivalTime;
+
+            // Update the current time to the arrival time of the new customer
+            currentTime = arrivalTime;
+
+            // Calculate the time when the customer's service starts and ends
+            double serviceStartTime = Math.max(arrivalTime, lastServiceEnd);
+            double serviceEndTime = serviceStartTime + serviceTime;
+            customers.add(arrivalTime, serviceTime, serviceStartTime, serviceEndTime);
+
+            // Calculate individual metrics for the customer
+            double waitTime = serviceStartTime - arrivalTime;
+            double timeInSystem = serviceEndTime - arrivalTime;
+            double idleTime = Math.max(0, (currentTime - lastServiceEnd)); // Time-server was idle before this customer
+
+            // Accumulate metrics for calculating averages and performance metrics
+            totalWaitTime += waitTime;
+            totalTimeInSystem += timeInSystem;
+            totalServiceTime += serviceTime;
+            totalIdleTime += idleTime;
+            waitTimeHistogram.record(waitTime);
+            timeInSystemHistogram.record(timeInSystem);
+
+            // Update the last service end time to this customer's service end time
+            lastServiceEnd = serviceEndTime;
+        }
+        monitor.progress(numCustomers, numCustomers);
+        if (numCustomers == 0) throw new IllegalArgumentException("Trace holds no records");
+        span.split(Instrumentation.Phase.GENERATION, generationTime);
+        span.count(numCustomers, 2L * numCustomers);
+
+        // Calculate performance metrics
+        double avgWaitTime = totalWaitTime / numCustomers; // Average time customers wait in the queue
+        double avgTimeInSystem = totalTimeInSystem / numCustomers; // Average time customers spend in the system
+        double serverUtilization = totalServiceTime / lastServiceEnd; // Proportion of time the server is busy
+
+        // Build the number-in-system step function once for both the metrics and the chart
+        long timelineStarted = timed ? System.nanoTime() : 0;
+        OccupancyTimeline timeline = OccupancyTimeline.fromStore(customers);
+        if (timed) span.split(Instrumentation.Phase.TIMELINE, System.nanoTime() - timelineStarted);
+
+        // The per-customer table is formatted on demand from the store, so the report only holds the metrics
+        StringBuilder table = new StringBuilder();
+        table.append("Performance Metrics:\n");
+        table.append(String.format("Average Waiting Time: %.2f\n", avgWaitTime));
+        table.append(String.format("Average Time in System: %.2f\n", avgTimeInSystem));
+        table.append(String.format("Server Utilization: %.2f%%\n", serverUtilization * 100));
+        table.append(String.format("Average Number in System (L): %.2f\n", timeline.timeAverageInSystem()));
+        table.append(String.format("Average Number in Queue (Lq): %.2f\n", timeline.timeAverageInQueue(1)));
+        table.append(waitTimeHistogram.formatPercentiles("Waiting Time"));
+        table.append(timeInSystemHistogram.formatPercentiles("Time in System"));
+        table.append(timeline.toHistogram().formatPercentiles());
+
+        return new SimulationResult(config, table.toString(), avgWaitTime, avgTimeInSystem, serverUtilization,
+                customers, timeline);
+    }
+
+    // Single-server run in constant memory that only keeps summary accumulators
+    private SimulationResult runStreaming(SimulationConfig config, CustomerSource source, ProgressMonitor monitor,
+                                          Instrumentation.Span span) {
+        StreamingSimulation simulation = new StreamingSimulation(source);
+        long resumedAt = 0;
+        if (config.getCheckpoint() != null) {
+            resumedAt = runCheckpointed(config, simulation, monitor);
+        } else {
+            simulation.advance(config.getNumCustomers(), monitor);
+        }
+        long simulated = simulation.getCustomersSimulated() - resumedAt;
+        span.split(Instrumentation.Phase.GENERATION, simulation.getGenerationTime());
+        span.count(simulated, 2 * simulated);
+        return new SimulationResult(config, simulation.formatSummary(), simulation.getWaitTimes().getMean(),
+                simulation.getTimesInSystem().getMean(), simulation.getServerUtilization(), null, null);
+    }
+
+    // Resumes from the checkpoint file if there is one, then saves a checkpoint after every interval.
+    // The interval is a whole number of batches, so a resumed run draws its times in the same batches
+    // as an uninterrupted one and gives bit-for-bit the same results. Returns the customers restored.
+    private long runCheckpointed(SimulationConfig config, StreamingSimulation simulation, ProgressMonitor monitor) {
+        Path file = config.getCheckpoint();
+        long interval = Math.max(1, config.getCheckpointInterval() / StreamingSimulation.BATCH_SIZE)
+                * StreamingSimulation.BATCH_SIZE;
+        long total = config.getNumCustomers();
+        try {
+            SimulationCheckpoint.restore(file, config, simulation);
+            long restored = simulation.getCustomersSimulated();
+            while (simulation.getCustomersSimulated() < total) {
+                long simulated = simulation.getCustomersSimulated();
+                long step = Math.min(interval, total - simulated);
+                long done = simulation.advance(step, ProgressMonitor.offset(monitor, simulated, total));
+                SimulationCheckpoint.save(file, config, simulation);
+                if (done < step) break; // The trace ran out
+            }
+            return restored;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot use checkpoint " + file, ex);
+        }
+    }
+
+    // Single-server run that discards its warm-up and stops once the target precision is reached
+    private SimulationResult runAdaptive(SimulationConfig config, CustomerSource source, ProgressMonitor monitor,
+                                         Instrumentation.Span span) {
+        AdaptiveSummary summary = AdaptiveRunner.run(new StreamingSimulation(source), config.getRelativePrecision(),
+                CONFIDENCE, config.getNumCustomers(), monitor);
+        StreamingSimulation simulation = summary.getSimulation();
+        span.split(Instrumentation.Phase.GENERATION, simulation.getGenerationTime());
+        span.count(summary.getCustomersSimulated(), 2 * summary.getCustomersSimulated());
+        return new SimulationResult(config, summary.formatSummary(), simulation.getWaitTimes().getMean(),
+                simulation.getTimesInSystem().getMean(), simulation.getServerUtilization(), null, null);
+    }
+
+    // Independent M/M/1 replications in parallel, reported with confidence intervals
+    private SimulationResult runReplications(SimulationConfig config, ProgressMonitor monitor, Instrumentation.Span span) {
+        ReplicationSummary summary = ReplicationRunner.run(config.getMeanInterarrival(), config.getMeanService(),
+                config.getNumCustomers(), config.getReplications(), config.getSeed(), CONFIDENCE, monitor);
+        long simulated = config.getNumCustomers() * config.getReplications();
+        span.count(simulated, 2 * simulated);
+        return new SimulationResult(config, summary.formatSummary(), summary.getWaitTime().getMean(),
+                summary.getTimeInSystem().getMean(), summary.getUtilization().getMean(), null, null);
+    }
+
+    // M/M/c and M/M/c/K runs on the event-driven engine, with the analytic model for comparison
+    private SimulationResult runEngine(SimulationConfig config, ProgressMonitor monitor, Instrumentation.Span span) {
+        QueueingEngine engine = new QueueingEngine(Distribution.exponential(config.getMeanInterarrival()),
+                Distribution.exponential(config.getMeanService()), config.getServers(), config.getCapacity(),
+                new Xoshiro256PlusPlus(config.getSeed()));
+        EngineResult result = engine.run(config.getNumCustomers(), monitor);
+        span.count(result.getArrivals(), result.getArrivals() + result.getServed());
+
+        QueueMetrics analytic = QueueSolver.solve(1 / config.getMeanInterarrival(), 1 / config.getMeanService(),
+                config.getServers(), config.getCapacity());
+        String report = result.formatSummary() + "\nAnalytic " + analytic.format();
+        return new SimulationResult(config, report, result.getWq(), result.getW(), result.getUtilization(), null, null);
+    }
+}
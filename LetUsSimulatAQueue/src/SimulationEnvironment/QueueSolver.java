@@ -0,0 +1,114 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Numerically stable steady-state solver for the M/M/1, M/M/1/K, M/M/c and M/M/c/K models.
+ * The state probabilities are built by the birth-death term recurrence P(n) = P(n-1) * λ / (min(n, c) μ),
+ * starting at the most likely state with weight 1 and walking outwards. No factorial or power is ever
+ * formed, so every term stays within the double range and an evaluation costs O(c + K), even for
+ * thousands of servers. Terms that underflow are dropped, since everything beyond them is smaller still.
+ */
+
+public class QueueSolver {
+    /**
+     * Capacity of a model without a limit on the number of customers.
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final double NEGLIGIBLE = 1e-300; // Relative weight below which terms are dropped
+
+    public static QueueMetrics mm1(double lambda, double mu) {
+        return solve(lambda, mu, 1, UNLIMITED);
+    }
+
+    public static QueueMetrics mm1k(double lambda, double mu, int k) {
+        return solve(lambda, mu, 1, k);
+    }
+
+    public static QueueMetrics mmc(double lambda, double mu, int c) {
+        return solve(lambda, mu, c, UNLIMITED);
+    }
+
+    public static QueueMetrics mmck(double lambda, double mu, int c, int k) {
+        return solve(lambda, mu, c, k);
+    }
+
+    /**
+     * Solves the M/M/c/K model; the other models are special cases of it.
+     *
+     * @param lambda Arrival rate (λ).
+     * @param mu     Service rate of each server (μ).
+     * @param c      Number of servers.
+     * @param k      System capacity, at least c, or UNLIMITED.
+     * @return The steady-state metrics; L, Lq, W and Wq are infinite for an unstable model without capacity limit.
+     */
+    public static QueueMetrics solve(double lambda, double mu, int c, int k) {
+        if (lambda < 0 || mu <= 0) throw new IllegalArgumentException("Rates must be positive");
+        if (c <= 0) throw new IllegalArgumentException("Number of servers must be positive");
+        if (k < c) throw new IllegalArgumentException("Capacity must be at least the number of servers");
+
+        double r = lambda / mu;
+        double rho = r / c;
+        boolean unlimited = k == UNLIMITED;
+        if (unlimited && rho >= 1) {
+            double inf = Double.POSITIVE_INFINITY;
+            return new QueueMetrics(lambda, mu, c, k, 0, 0, inf, inf, inf, inf, lambda);
+        }
+
+        // The terms grow while λ exceeds the service rate of the state, so the largest one is at
+        // floor(r) if that is below c, and at K if the servers are overloaded.
+        int top = unlimited ? c : k;
+        int mode = rho > 1 ? top : (int) Math.min(Math.floor(r), c);
+
+        // Weighted sums over the states: total weight, n * weight and (n - c) * weight
+        double sum = 1, sumN = mode, sumQ = Math.max(0, mode - c);
+        double weight0 = mode == 0 ? 1 : 0;
+        double weightTop = mode == top ? 1 : 0;
+
+        // Walk down from the mode to the empty system
+        double term = 1;
+        for (int n = mode; n > 0; n--) {
+            term *= Math.min(n, c) / r;
+            if (term < NEGLIGIBLE) break;
+            sum += term;
+            sumN += (n - 1) * term;
+            sumQ += Math.max(0, n - 1 - c) * term;
+            if (n == 1) weight0 = term;
+        }
+
+        // Walk up from the mode to c servers busy, or to the capacity
+        term = 1;
+        for (int n = mode + 1; n <= top; n++) {
+            term *= r / Math.min(n, c);
+            if (term < NEGLIGIBLE) break;
+            sum += term;
+            sumN += (double) n * term;
+            sumQ += Math.max(0, n - c) * term;
+            if (n == top) weightTop = term;
+        }
+
+        double p0, pk, l, lq;
+        if (unlimited) {
+            // Geometric tail beyond c with ratio ρ, summed in closed form
+            double weightC = weightTop;
+            double tail = weightC * rho / (1 - rho);
+            sum += tail;
+            sumQ += weightC * rho / ((1 - rho) * (1 - rho));
+            sumN += c * tail + weightC * rho / ((1 - rho) * (1 - rho));
+            pk = 0;
+        } else {
+            pk = weightTop / sum;
+        }
+        p0 = weight0 / sum;
+        l = sumN / sum;
+        lq = sumQ / sum;
+
+        double lambdaEff = lambda * (1 - pk);
+        double w = lambdaEff > 0 ? l / lambdaEff : 1 / mu;
+        double wq = lambdaEff > 0 ? lq / lambdaEff : 0;
+        return new QueueMetrics(lambda, mu, c, k, p0, pk, l, lq, w, wq, lambdaEff);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.concurrent.CancellationException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Event-driven simulation of a multi-server queue with optional finite capacity (G/G/c/K).
+ * Arrivals and service completions are taken from an event calendar; customers who find
+ * the system full are blocked and counted as lost. With exponential distributions the
+ * results are directly comparable with the M/M/c and M/M/c/K formulas of QueueAnalyzing.
+ */
+
+public class QueueingEngine {
+    private static final int ARRIVAL = 0;
+    private static final int DEPARTURE = 1;
+    private static final int PROGRESS_INTERVAL = 1 << 16; // Arrivals between progress reports
+    private static final int INITIAL_QUEUE_LENGTH = 1024;  // Initial length of the waiting line buffer
+
+    private final Distribution interarrivalTimes;
+    private final Distribution serviceTimes;
+    private final int servers;
+    private final int capacity;
+    private final RandomGenerator random;
+
+    /**
+     * @param interarrivalTimes Distribution of the time between arrivals.
+     * @param serviceTimes      Distribution of the service times.
+     * @param servers           Number of servers (c).
+     * @param capacity          Maximum number of customers in the system (K), or QueueSolver.UNLIMITED.
+     * @param random            Random stream for all draws.
+     */
+    public QueueingEngine(Distribution interarrivalTimes, Distribution serviceTimes, int servers, int capacity,
+                          RandomGenerator random) {
+        if (servers <= 0) throw new IllegalArgumentException("Number of servers must be positive");
+        if (capacity < servers) throw new IllegalArgumentException("Capacity must be at least the number of servers");
+        this.interarrivalTimes = interarrivalTimes;
+        this.serviceTimes = serviceTimes;
+        this.servers = servers;
+        this.capacity = capacity;
+        this.random = random;
+    }
+
+    /**
+     * Simulates the given number of arrivals and lets the system drain afterwards.
+     * Every customer counts towards the waiting times and times in system, but the time averages
+     * (L, Lq, utilization and the number-in-system distribution) stop at the last arrival, since the
+     * drain after it would pull them towards an empty system.
+     *
+     * @param numArrivals Number of customers arriving at the system, including blocked ones.
+     * @param monitor     Receives progress and may cancel the run.
+     * @return The measured performance of the system.
+     * @throws CancellationException If the monitor cancels the run.
+     */
+    public EngineResult run(long numArrivals, ProgressMonitor monitor) {
+        EventCalendar calendar = new EventCalendar();
+        RunningStatistics waitTimes = new RunningStatistics();
+        RunningStatistics timesInSystem = new RunningStatistics();
+        LogHistogram waitTimeHistogram = new LogHistogram();
+        LogHistogram timeInSystemHistogram = new LogHistogram();
+        OccupancyHistogram numberInSystem = new OccupancyHistogram();
+
+        // Free servers are kept on a stack, the arrival time of each customer in service per server
+        int[] freeServers = new int[servers];
+        for (int s = 0; s < servers; s++) {
+            freeServers[s] = servers - 1 - s;
+        }
+        int freeCount = servers;
+        double[] serviceArrivals = new double[servers];
+
+        // Arrival times of the waiting customers in a FIFO ring buffer with a power-of-two length
+        double[] queue = new double[INITIAL_QUEUE_LENGTH];
+        int queueHead = 0, queueSize = 0;
+
+        double now = 0, lastEventTime = 0; // The last event time stops moving at the last arrival
+        double areaInSystem = 0, areaInQueue = 0, areaBusy = 0; // Time integrals of the state
+        long arrivals = 0, lost = 0;
+
+        calendar.schedule(0, ARRIVAL, 0);
+        while (!calendar.isEmpty()) {
+            now = calendar.peekTime();
+            int type = calendar.peekType();
+            int server = calendar.peekPayload();
+            calendar.removeFirst();
+
+            // Accumulate the time spent in the previous state, up to the last arrival
+            int busy = servers - freeCount;
+            if (arrivals < numArrivals) {
+                double elapsed = now - lastEventTime;
+                areaInSystem += (busy + queueSize) * elapsed;
+                areaInQueue += queueSize * elapsed;
+                areaBusy += busy * elapsed;
+                numberInSystem.add(busy + queueSize, elapsed);
+                lastEventTime = now;
+            }
+
+            if (type == ARRIVAL) {
+                arrivals++;
+                if (arrivals % PROGRESS_INTERVAL == 0) {
+                    if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                    monitor.progress(arrivals, numArrivals);
+                }
+                if (arrivals < numArrivals) {
+                    calendar.schedule(now + interarrivalTimes.sample(random), ARRIVAL, 0);
+                }
+
+                if (busy + queueSize >= capacity) {
+                    lost++; // The system is full, the customer is blocked
+                } else if (freeCount > 0) {
+                    int freeServer = freeServers[--freeCount];
+                    serviceArrivals[freeServer] = now;
+                    waitTimes.add(0);
+                    waitTimeHistogram.record(0);
+                    calendar.schedule(now + serviceTimes.sample(random), DEPARTURE, freeServer);
+                } else {
+                    if (queueSize == queue.length) {
+                        queue = growQueue(queue, queueHead, queueSize);
+                        queueHead = 0;
+                    }
+                    queue[(queueHead + queueSize) & (queue.length - 1)] = now;
+                    queueSize++;
+                }
+            } else {
+                timesInSystem.add(now - serviceArrivals[server]);
+                timeInSystemHistogram.record(now - serviceArrivals[server]);
+                if (queueSize > 0) {
+                    // The server takes the customer at the head of the queue
+                    double arrivalTime = queue[queueHead];
+                    queueHead = (queueHead + 1) & (queue.length - 1);
+                    queueSize--;
+                    serviceArrivals[server] = arrivalTime;
+                    waitTimes.add(now - arrivalTime);
+                    waitTimeHistogram.record(now - arrivalTime);
+                    calendar.schedule(now + serviceTimes.sample(random), DEPARTURE, server);
+                } else {
+                    freeServers[freeCount++] = server;
+                }
+            }
+        }
+        monitor.progress(numArrivals, numArrivals);
+
+        double horizon = lastEventTime;
+        return new EngineResult(servers, capacity, arrivals, lost, horizon,
+                horizon > 0 ? areaInSystem / horizon : 0,
+                horizon > 0 ? areaInQueue / horizon : 0,
+                horizon > 0 ? areaBusy / (horizon * servers) : 0,
+                waitTimes, timesInSystem, waitTimeHistogram, timeInSystemHistogram, numberInSystem);
+    }
+
+    // Doubles the ring buffer and moves the waiting customers to its start
+    private static double[] growQueue(double[] queue, int head, int size) {
+        double[] grown = new double[queue.length * 2];
+        for (int i = 0; i < size; i++) {
+            grown[i] = queue[(head + i) & (queue.length - 1)];
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Endless source of customers whose times are drawn from two distributions.
+ * Arrivals and services may draw from separate streams, so that compared scenarios can
+ * share either stream customer by customer (common random numbers).
+ * Sources drawing from xoshiro256++ streams can be checkpointed, since the state of those streams can be saved.
+ */
+
+public final class RandomCustomerSource implements CustomerSource {
+    private final Distribution interarrivals;
+    private final Distribution services;
+    private final RandomGenerator arrivalRandom;
+    private final RandomGenerator serviceRandom;
+    private boolean started;
+
+    /**
+     * @param interarrivals Distribution of the time between arrivals.
+     * @param services      Distribution of the service times.
+     * @param random        The random stream to draw from.
+     */
+    public RandomCustomerSource(Distribution interarrivals, Distribution services, RandomGenerator random) {
+        this(interarrivals, services, random, random);
+    }
+
+    /**
+     * @param interarrivals Distribution of the time between arrivals.
+     * @param services      Distribution of the service times.
+     * @param arrivalRandom The random stream of the inter-arrival times.
+     * @param serviceRandom The random stream of the service times.
+     */
+    public RandomCustomerSource(Distribution interarrivals, Distribution services, RandomGenerator arrivalRandom,
+                                RandomGenerator serviceRandom) {
+        this.interarrivals = interarrivals;
+        this.services = services;
+        this.arrivalRandom = arrivalRandom;
+        this.serviceRandom = serviceRandom;
+    }
+
+    @Override
+    public int fill(double[] interarrivalTimes, double[] serviceTimes, int count) {
+        interarrivals.fill(arrivalRandom, interarrivalTimes, 0, count);
+        services.fill(serviceRandom, serviceTimes, 0, count);
+        if (!started && count > 0) {
+            interarrivalTimes[0] = 0; // The first customer arrives at time zero
+            started = true;
+        }
+        return count;
+    }
+
+    /**
+     * @throws UnsupportedOperationException If a stream is not a xoshiro256++ generator.
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeBoolean(started);
+        for (long word : stream(arrivalRandom).getState()) {
+            out.writeLong(word);
+        }
+        if (serviceRandom != arrivalRandom) {
+            for (long word : stream(serviceRandom).getState()) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * @throws UnsupportedOperationException If a stream is not a xoshiro256++ generator.
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        started = in.readBoolean();
+        stream(arrivalRandom).setState(readWords(in));
+        if (serviceRandom != arrivalRandom) {
+            stream(serviceRandom).setState(readWords(in));
+        }
+    }
+
+    private static Xoshiro256PlusPlus stream(RandomGenerator random) {
+        if (!(random instanceof Xoshiro256PlusPlus xoshiro)) {
+            throw new UnsupportedOperationException("Only xoshiro256++ streams can be checkpointed");
+        }
+        return xoshiro;
+    }
+
+    private static long[] readWords(DataInput in) throws IOException {
+        long[] state = new long[4];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = in.readLong();
+        }
+        return state;
+    }
+}
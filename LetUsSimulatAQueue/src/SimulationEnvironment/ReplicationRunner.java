@@ -0,0 +1,88 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Runs independent replications of an M/M/1 simulation in parallel on a fork-join pool.
+ * Every replication draws from its own jump-ahead stream of a single seeded xoshiro256++
+ * generator, so the replications are statistically independent and the whole experiment is reproducible.
+ */
+
+public class ReplicationRunner {
+
+    /**
+     * Runs the replications and merges their averages into confidence intervals.
+     *
+     * @param meanInterarrival        Mean inter-arrival time (1/λ).
+     * @param meanService             Mean service time (1/μ).
+     * @param customersPerReplication Number of customers simulated in every replication.
+     * @param replications            Number of independent replications.
+     * @param seed                    Seed of the root random stream.
+     * @param confidence              Confidence level of the intervals, e.g. 0.95.
+     * @param monitor                 Receives the number of customers simulated over all replications and may cancel the run.
+     * @return The merged replication results.
+     * @throws CancellationException    If the monitor cancels the run.
+     * @throws IllegalArgumentException If the number of customers over all replications does not fit in a long.
+     */
+    public static ReplicationSummary run(double meanInterarrival, double meanService, long customersPerReplication,
+                                         int replications, long seed, double confidence, ProgressMonitor monitor) {
+        // Hand out the streams up front so each replication gets the same stream regardless of scheduling
+        Xoshiro256PlusPlus root = new Xoshiro256PlusPlus(seed);
+        Xoshiro256PlusPlus[] streams = new Xoshiro256PlusPlus[replications];
+        for (int i = 0; i < replications; i++) {
+            streams[i] = root.nextStream();
+        }
+
+        // One slot per replication, so the workers never share anything they write
+        double[] avgWaitTimes = new double[replications];
+        double[] avgTimesInSystem = new double[replications];
+        double[] utilizations = new double[replications];
+        long total;
+        try {
+            total = Math.multiplyExact(customersPerReplication, replications);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Too many customers over all replications");
+        }
+        AtomicLong simulated = new AtomicLong();
+
+        // Tail metrics pooled over all customers of all replications; histogram counts add up
+        // the same in any order, so merging as replications finish keeps the result reproducible
+        LogHistogram waitTimeHistogram = new LogHistogram();
+        LogHistogram timeInSystemHistogram = new LogHistogram();
+
+        // Parallel streams run on the common fork-join pool, one replication per task
+        IntStream.range(0, replications).parallel().forEach(i -> {
+            if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+            StreamingSimulation simulation = new StreamingSimulation(meanInterarrival, meanService, streams[i]);
+            simulation.advance(customersPerReplication, ProgressMonitor.concurrent(monitor, simulated, total));
+            avgWaitTimes[i] = simulation.getWaitTimes().getMean();
+            avgTimesInSystem[i] = simulation.getTimesInSystem().getMean();
+            utilizations[i] = simulation.getServerUtilization();
+            synchronized (waitTimeHistogram) {
+                waitTimeHistogram.merge(simulation.getWaitTimeHistogram());
+                timeInSystemHistogram.merge(simulation.getTimeInSystemHistogram());
+            }
+        });
+
+        // Merge the per-replication averages in replication order
+        RunningStatistics waitTimes = new RunningStatistics();
+        RunningStatistics timesInSystem = new RunningStatistics();
+        RunningStatistics utilization = new RunningStatistics();
+        for (int i = 0; i < replications; i++) {
+            waitTimes.add(avgWaitTimes[i]);
+            timesInSystem.add(avgTimesInSystem[i]);
+            utilization.add(utilizations[i]);
+        }
+        return new ReplicationSummary(replications, customersPerReplication,
+                ConfidenceInterval.of(waitTimes, confidence),
+                ConfidenceInterval.of(timesInSystem, confidence),
+                ConfidenceInterval.of(utilization, confidence),
+                waitTimeHistogram, timeInSystemHistogram);
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Confidence intervals merged from independent simulation replications.
+ */
+
+public class ReplicationSummary {
+    private final int replications;
+    private final long customersPerReplication;
+    private final ConfidenceInterval waitTime;
+    private final ConfidenceInterval timeInSystem;
+    private final ConfidenceInterval utilization;
+    private final LogHistogram waitTimeHistogram;
+    private final LogHistogram timeInSystemHistogram;
+
+    public ReplicationSummary(int replications, long customersPerReplication, ConfidenceInterval waitTime,
+                              ConfidenceInterval timeInSystem, ConfidenceInterval utilization,
+                              LogHistogram waitTimeHistogram, LogHistogram timeInSystemHistogram) {
+        this.replications = replications;
+        this.customersPerReplication = customersPerReplication;
+        this.waitTime = waitTime;
+        this.timeInSystem = timeInSystem;
+        this.utilization = utilization;
+        this.waitTimeHistogram = waitTimeHistogram;
+        this.timeInSystemHistogram = timeInSystemHistogram;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    public long getCustomersPerReplication() {
+        return customersPerReplication;
+    }
+
+    public ConfidenceInterval getWaitTime() {
+        return waitTime;
+    }
+
+    public ConfidenceInterval getTimeInSystem() {
+        return timeInSystem;
+    }
+
+    public ConfidenceInterval getUtilization() {
+        return utilization;
+    }
+
+    /**
+     * @return Waiting times of the customers of all replications.
+     */
+    public LogHistogram getWaitTimeHistogram() {
+        return waitTimeHistogram;
+    }
+
+    /**
+     * @return Times in system of the customers of all replications.
+     */
+    public LogHistogram getTimeInSystemHistogram() {
+        return timeInSystemHistogram;
+    }
+
+    /**
+     * Formats the merged metrics of all replications.
+     *
+     * @return The performance metrics with their confidence intervals.
+     */
+    public String formatSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Replications: %d x %d customers\n", replications, customersPerReplication));
+        summary.append(String.format("\nPerformance Metrics (%.0f%% confidence intervals):\n", waitTime.getConfidence() * 100));
+        summary.append(String.format("Average Waiting Time: %s\n", waitTime));
+        summary.append(String.format("Average Time in System: %s\n", timeInSystem));
+        summary.append(String.format("Server Utilization: %.2f%% ± %.2f%%\n",
+                utilization.getMean() * 100, utilization.getHalfWidth() * 100));
+        summary.append("\nPooled over all replications:\n");
+        summary.append(waitTimeHistogram.formatPercentiles("Waiting Time"));
+        summary.append(timeInSystemHistogram.formatPercentiles("Time in System"));
+        return summary.toString();
+    }
+}
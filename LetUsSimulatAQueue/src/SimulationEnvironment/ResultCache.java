@@ -0,0 +1,58 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Least-recently-used cache of job results, keyed on the normalized request.
+ * It holds futures rather than results, so a request that arrives while the same job is
+ * still running waits for that job instead of starting a second one. An access-ordered
+ * LinkedHashMap keeps the entries in order of use and drops the eldest beyond the capacity.
+ */
+
+class ResultCache {
+    private final Map<String, CompletableFuture<String>> entries;
+
+    /**
+     * @param capacity Maximum number of results kept.
+     */
+    ResultCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Cache size must be positive");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<String>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the result of the key, or registers the given future as the one that will hold it.
+     *
+     * @param key    Normalized request.
+     * @param future Future that the caller completes if it is registered.
+     * @return The future already held for the key, or null if the given future was registered.
+     */
+    synchronized CompletableFuture<String> getOrRegister(String key, CompletableFuture<String> future) {
+        CompletableFuture<String> existing = entries.get(key);
+        if (existing != null) return existing;
+        entries.put(key, future);
+        return null;
+    }
+
+    /**
+     * Forgets the future of a job that failed, so a later request runs it again.
+     */
+    synchronized void remove(String key, CompletableFuture<String> future) {
+        entries.remove(key, future);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
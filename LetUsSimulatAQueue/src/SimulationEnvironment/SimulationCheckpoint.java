@@ -0,0 +1,91 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary checkpoint of a streaming run. The file starts with a magic number, a version
+ * and the parameters that determine the customers (mean times, seed, trace and number of customers),
+ * followed by the state written by {@link StreamingSimulation#writeState}. The number of customers is
+ * part of the run because the last batch of times is cut to the customers left, so a checkpoint
+ * written at the end of a run cannot be extended into a longer one with the same results. A new checkpoint is written next to the
+ * old one and moved over it only once it is on disk, so stopping the program at any moment leaves
+ * the last complete checkpoint behind.
+ */
+
+public final class SimulationCheckpoint {
+    private static final int MAGIC = 0x51434b50; // "QCKP"
+    private static final int VERSION = 3;
+
+    private SimulationCheckpoint() {
+    }
+
+    /**
+     * Writes the state of a run to a checkpoint file, replacing any previous checkpoint.
+     *
+     * @param file       The checkpoint file.
+     * @param config     The configuration of the run.
+     * @param simulation The run, between two calls to advance.
+     * @throws IOException If the checkpoint cannot be written.
+     */
+    public static void save(Path file, SimulationConfig config, StreamingSimulation simulation) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeDouble(config.getMeanInterarrival());
+            out.writeDouble(config.getMeanService());
+            out.writeLong(config.getSeed());
+            out.writeLong(config.getNumCustomers());
+            out.writeUTF(config.getTrace() == null ? "" : config.getTrace().toAbsolutePath().toString());
+            simulation.writeState(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores a run from its checkpoint file, if there is one.
+     *
+     * @param file       The checkpoint file.
+     * @param config     The configuration of the run, which must match the one the checkpoint was written for.
+     * @param simulation A new run of that configuration, whose state is replaced.
+     * @return True if the run was restored, false if there is no checkpoint yet.
+     * @throws IOException              If the checkpoint cannot be read.
+     * @throws IllegalArgumentException If the file is not a checkpoint of this configuration.
+     */
+    public static boolean restore(Path file, SimulationConfig config, StreamingSimulation simulation) throws IOException {
+        if (!Files.exists(file)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalArgumentException(file + " is not a checkpoint of this version");
+            }
+            boolean sameRun = Double.compare(in.readDouble(), config.getMeanInterarrival()) == 0
+                    && Double.compare(in.readDouble(), config.getMeanService()) == 0
+                    && in.readLong() == config.getSeed()
+                    && in.readLong() == config.getNumCustomers()
+                    && in.readUTF().equals(config.getTrace() == null ? "" : config.getTrace().toAbsolutePath().toString());
+            if (!sameRun) {
+                throw new IllegalArgumentException("Checkpoint " + file + " belongs to a run with other times, seed, trace or number of customers");
+            }
+            simulation.readState(in);
+        }
+        return true;
+    }
+}
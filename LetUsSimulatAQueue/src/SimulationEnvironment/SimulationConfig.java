@@ -0,0 +1,200 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.nio.file.Path;
+
+/**
+ * Immutable description of one simulation run.
+ */
+
+public final class SimulationConfig {
+    private final double meanInterarrival;
+    private final double meanService;
+    private final long numCustomers;
+    private final int servers;
+    private final int capacity;
+    private final int replications;
+    private final boolean keepCustomers;
+    private final long seed;
+    private final Path trace;
+    private final double relativePrecision;
+    private final Path checkpoint;
+    private final long checkpointInterval;
+
+    /**
+     * @param meanInterarrival Mean inter-arrival time (1/λ).
+     * @param meanService      Mean service time (1/μ).
+     * @param numCustomers     Number of customers per run.
+     * @param servers          Number of servers (c).
+     * @param capacity         System capacity (K), or QueueSolver.UNLIMITED.
+     * @param replications     Number of independent replications.
+     * @param keepCustomers    Keep every customer for the per-customer report and the chart (M/M/1 only).
+     * @param seed             Seed of the random streams.
+     * @throws IllegalArgumentException If the parameters do not describe a valid run.
+     */
+    public SimulationConfig(double meanInterarrival, double meanService, long numCustomers, int servers, int capacity,
+                            int replications, boolean keepCustomers, long seed) {
+        this(meanInterarrival, meanService, numCustomers, servers, capacity, replications, keepCustomers, seed, null, 0,
+                null, 0);
+    }
+
+    private SimulationConfig(double meanInterarrival, double meanService, long numCustomers, int servers, int capacity,
+                             int replications, boolean keepCustomers, long seed, Path trace, double relativePrecision,
+                             Path checkpoint, long checkpointInterval) {
+        if (trace != null) {
+            if (numCustomers <= 0) throw new IllegalArgumentException("Number of customers must be positive");
+        } else if (!(meanInterarrival > 0) || !(meanService > 0) || numCustomers <= 0 || servers <= 0 || replications <= 0) {
+            throw new IllegalArgumentException("Times, number of customers, servers and replications must be positive");
+        }
+        if (capacity < servers) {
+            throw new IllegalArgumentException("System capacity (K) must be at least the number of servers (c)");
+        }
+        if (keepCustomers && numCustomers > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many customers to keep in memory, use a summary-only run");
+        }
+        if (replications > 1 && (servers > 1 || capacity != QueueSolver.UNLIMITED)) {
+            throw new IllegalArgumentException("Replications need a single server without a capacity limit");
+        }
+        if (relativePrecision < 0 || Double.isNaN(relativePrecision)) {
+            throw new IllegalArgumentException("Relative precision must not be negative");
+        }
+        if (relativePrecision > 0 && (servers > 1 || capacity != QueueSolver.UNLIMITED || replications > 1 || keepCustomers)) {
+            throw new IllegalArgumentException("Adaptive runs need a single server, one replication and a summary-only run");
+        }
+        if (checkpoint != null && checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        if (checkpoint != null && (servers > 1 || capacity != QueueSolver.UNLIMITED || replications > 1 || keepCustomers
+                || relativePrecision > 0)) {
+            throw new IllegalArgumentException("Checkpointed runs need a single server, one replication and a summary-only run of fixed length");
+        }
+        this.meanInterarrival = meanInterarrival;
+        this.meanService = meanService;
+        this.numCustomers = numCustomers;
+        this.servers = servers;
+        this.capacity = capacity;
+        this.replications = replications;
+        this.keepCustomers = keepCustomers;
+        this.seed = seed;
+        this.trace = trace;
+        this.relativePrecision = relativePrecision;
+        this.checkpoint = checkpoint;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * @return A single M/M/1 run that keeps every customer.
+     */
+    public static SimulationConfig mm1(double meanInterarrival, double meanService, int numCustomers, long seed) {
+        return new SimulationConfig(meanInterarrival, meanService, numCustomers, 1, QueueSolver.UNLIMITED, 1, true, seed);
+    }
+
+    /**
+     * @param trace         CSV or binary file of (arrival time, service time) records, see TraceReader.
+     * @param maxCustomers  Largest number of records to replay.
+     * @param keepCustomers Keep every customer for the per-customer report and the chart.
+     * @return A single-server run that replays the trace instead of drawing random times.
+     */
+    public static SimulationConfig replay(Path trace, long maxCustomers, boolean keepCustomers) {
+        return new SimulationConfig(Double.NaN, Double.NaN, maxCustomers, 1, QueueSolver.UNLIMITED, 1, keepCustomers, 0,
+                trace, 0, null, 0);
+    }
+
+    /**
+     * Makes the run adaptive: it discards the warm-up and stops as soon as the batch-means confidence
+     * intervals reach the given relative precision, with the number of customers as the budget.
+     *
+     * @param relativePrecision Target half-width of the intervals relative to their mean, e.g. 0.05, or 0 for a fixed-length run.
+     * @return A copy of this configuration with the target precision.
+     */
+    public SimulationConfig withRelativePrecision(double relativePrecision) {
+        return new SimulationConfig(meanInterarrival, meanService, numCustomers, servers, capacity, replications,
+                keepCustomers, seed, trace, relativePrecision, checkpoint, checkpointInterval);
+    }
+
+    /**
+     * Makes the run save its state to a checkpoint file every given number of customers, and resume
+     * from that file if it already exists, so a long run can be stopped and continued later.
+     *
+     * @param checkpoint         The checkpoint file.
+     * @param checkpointInterval Customers between checkpoints, rounded to whole batches of generated times.
+     * @return A copy of this configuration that checkpoints.
+     */
+    public SimulationConfig withCheckpoint(Path checkpoint, long checkpointInterval) {
+        return new SimulationConfig(meanInterarrival, meanService, numCustomers, servers, capacity, replications,
+                keepCustomers, seed, trace, relativePrecision, checkpoint, checkpointInterval);
+    }
+
+    /**
+     * @return Mean inter-arrival time (1/λ), or NaN for a trace replay.
+     */
+    public double getMeanInterarrival() {
+        return meanInterarrival;
+    }
+
+    /**
+     * @return Mean service time (1/μ), or NaN for a trace replay.
+     */
+    public double getMeanService() {
+        return meanService;
+    }
+
+    public long getNumCustomers() {
+        return numCustomers;
+    }
+
+    public int getServers() {
+        return servers;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    public boolean isKeepCustomers() {
+        return keepCustomers;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The trace to replay, or null if the times are drawn at random.
+     */
+    public Path getTrace() {
+        return trace;
+    }
+
+    /**
+     * @return Target relative precision of an adaptive run, or 0 for a fixed-length run.
+     */
+    public double getRelativePrecision() {
+        return relativePrecision;
+    }
+
+    /**
+     * @return The checkpoint file, or null if the run does not checkpoint.
+     */
+    public Path getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * @return True if the run needs the event-driven engine (several servers or a finite capacity).
+     */
+    public boolean isMultiServer() {
+        return servers > 1 || capacity != QueueSolver.UNLIMITED;
+    }
+}
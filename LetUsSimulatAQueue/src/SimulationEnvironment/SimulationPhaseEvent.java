@@ -0,0 +1,48 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one phase of a simulation or analysis, committed by Instrumentation.
+ * It is recorded whenever a recording is running, e.g. with {@code -XX:StartFlightRecording},
+ * and can be listed with {@code jfr print --events SimulationEnvironment.Phase}.
+ */
+
+@Name("SimulationEnvironment.Phase")
+@Label("Simulation Phase")
+@Category({"Queue Simulator"})
+@Description("Time, work and allocation of one phase of a simulation or analysis")
+@StackTrace(false)
+class SimulationPhaseEvent extends jdk.jfr.Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Elapsed")
+    @Description("Time spent in the phase itself, without the phases split off from it")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Customers")
+    long customers;
+
+    @Label("Events")
+    long events;
+
+    @Label("Events per Second")
+    double eventsPerSecond;
+
+    @Label("Allocated")
+    @Description("Heap allocated by all threads of the JVM while the phase ran, including concurrent phases")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+}
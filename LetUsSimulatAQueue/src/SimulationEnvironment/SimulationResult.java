@@ -0,0 +1,68 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Outcome of a simulation run: the headline metrics, the formatted report and,
+ * for runs that keep every customer, the customers and their occupancy timeline.
+ */
+
+public final class SimulationResult {
+    private final SimulationConfig config;
+    private final String report;
+    private final double averageWaitTime;
+    private final double averageTimeInSystem;
+    private final double serverUtilization;
+    private final CustomerStore customers;
+    private final OccupancyTimeline timeline;
+
+    public SimulationResult(SimulationConfig config, String report, double averageWaitTime, double averageTimeInSystem,
+                            double serverUtilization, CustomerStore customers, OccupancyTimeline timeline) {
+        this.config = config;
+        this.report = report;
+        this.averageWaitTime = averageWaitTime;
+        this.averageTimeInSystem = averageTimeInSystem;
+        this.serverUtilization = serverUtilization;
+        this.customers = customers == null ? null : customers.readOnlyView();
+        this.timeline = timeline;
+    }
+
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return The report shown to the user.
+     */
+    public String getReport() {
+        return report;
+    }
+
+    public double getAverageWaitTime() {
+        return averageWaitTime;
+    }
+
+    public double getAverageTimeInSystem() {
+        return averageTimeInSystem;
+    }
+
+    public double getServerUtilization() {
+        return serverUtilization;
+    }
+
+    /**
+     * @return A read-only view of the simulated customers, or null if the run did not keep them.
+     */
+    public CustomerStore getCustomers() {
+        return customers;
+    }
+
+    /**
+     * @return The occupancy timeline, or null if the run did not keep the customers.
+     */
+    public OccupancyTimeline getTimeline() {
+        return timeline;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Inverse solvers for capacity planning: the fewest servers or the smallest capacity
+ * that meet a service target. Both walk the parameter upwards and update the previous
+ * solution with a recurrence, so finding the answer costs O(answer) in total.
+ */
+
+public class StaffingOptimizer {
+    /**
+     * Returned when no value of the parameter can meet the target.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * Finds the smallest number of servers of an M/M/c queue whose mean wait does not exceed the target.
+     *
+     * @param lambda     Arrival rate (λ).
+     * @param mu         Service rate of each server (μ).
+     * @param targetWq   Largest acceptable mean waiting time in the queue.
+     * @param maxServers Largest number of servers to consider.
+     * @return The number of servers, or UNREACHABLE if even maxServers is not enough.
+     */
+    public static int minServersForWaitTime(double lambda, double mu, double targetWq, int maxServers) {
+        if (lambda < 0 || mu <= 0) throw new IllegalArgumentException("Rates must be positive");
+        if (targetWq < 0) throw new IllegalArgumentException("Target waiting time must not be negative");
+        double r = lambda / mu;
+        double erlangB = 1; // B(0)
+        for (int c = 1; c <= maxServers; c++) {
+            erlangB = r * erlangB / (c + r * erlangB);
+            if (r >= c) continue; // Unstable, the queue grows without bound
+
+            double erlangC = c * erlangB / (c - r * (1 - erlangB));
+            double wq = lambda > 0 ? erlangC / (c * mu - lambda) : 0;
+            if (wq <= targetWq) return c;
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Finds the smallest capacity of an M/M/c/K queue whose blocking probability does not exceed the target.
+     *
+     * @param lambda         Arrival rate (λ).
+     * @param mu             Service rate of each server (μ).
+     * @param c              Number of servers.
+     * @param targetBlocking Largest acceptable probability that an arrival finds the system full.
+     * @param maxCapacity    Largest capacity to consider.
+     * @return The capacity K, or UNREACHABLE if even maxCapacity is not enough.
+     */
+    public static int minCapacityForBlocking(double lambda, double mu, int c, double targetBlocking, int maxCapacity) {
+        if (lambda < 0 || mu <= 0) throw new IllegalArgumentException("Rates must be positive");
+        if (c <= 0) throw new IllegalArgumentException("Number of servers must be positive");
+        double r = lambda / mu;
+        double rho = r / c;
+
+        // Erlang B gives the blocking probability at K = c
+        double erlangB = 1;
+        for (int n = 1; n <= c; n++) {
+            erlangB = r * erlangB / (n + r * erlangB);
+        }
+        if (erlangB <= targetBlocking) return c;
+
+        // Above c the blocking probability is 1 / q, with q the total state weight relative to the
+        // weight of state K. Raising K by one divides q by ρ and adds the new state, so q stays finite for any ρ.
+        double q = 1 / erlangB;
+        for (int k = c + 1; k <= maxCapacity; k++) {
+            q = q / rho + 1;
+            if (1 / q <= targetBlocking) return k;
+            if (rho >= 1 && q >= rho / (rho - 1)) break; // Blocking has reached its limit 1 - 1/ρ
+        }
+        return UNREACHABLE;
+    }
+}
@@ -0,0 +1,402 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Simulates a single-server queue without keeping any per-customer data, either an M/M/1
+ * queue with random times or a replay of a recorded trace.
+ * Waiting time, time in system and idle time are folded into online accumulators and
+ * fixed-size histograms, so memory stays constant no matter how many customers are simulated.
+ * Between calls to advance nothing is left buffered, so the whole state of the run, including the
+ * position of its source, can be written to a checkpoint and restored bit for bit.
+ * The only state that depends on the run is the list of departures still pending, which follows
+ * the number in system. It is capped at {@link #MAX_PENDING} customers, so a run of an unstable
+ * queue (ρ ≥ 1), or of a trace that overloads the server, fails once that many customers wait
+ * at the same time instead of growing without bound.
+ */
+
+public class StreamingSimulation {
+    private static final int PROGRESS_INTERVAL = 1 << 16; // Customers between progress reports
+    static final int BATCH_SIZE = 1024;                    // Customers whose times are generated together
+
+    /**
+     * Largest number of customers that may be in the system at once, 8 MB of pending departures.
+     */
+    public static final int MAX_PENDING = 1 << 20;
+    private final CustomerSource source;
+
+    // Batches of times taken from the source, refilled once per batch instead of per customer
+    private final double[] interarrivalBuffer = new double[BATCH_SIZE];
+    private final double[] serviceBuffer = new double[BATCH_SIZE];
+
+    // Simulation state carried from one customer to the next
+    private long customersSimulated;
+    private double currentTime;
+    private double lastServiceEnd;
+    private double totalServiceTime;
+    private double statisticsStartTime; // Time from which the server's busy time is measured
+
+    // Online accumulators for the per-customer metrics
+    private final RunningStatistics waitTimes = new RunningStatistics();
+    private final RunningStatistics timesInSystem = new RunningStatistics();
+    private final RunningStatistics idleTimes = new RunningStatistics();
+    private final LogHistogram waitTimeHistogram = new LogHistogram();
+    private final LogHistogram timeInSystemHistogram = new LogHistogram();
+
+    // Time-weighted number in system, fed from the departures still pending at each arrival.
+    // Departures of a FIFO single server come in arrival order, so a ring buffer holds them;
+    // it only grows with the largest number in system, up to MAX_PENDING, never with the number of customers.
+    private final OccupancyHistogram occupancy = new OccupancyHistogram();
+    private double[] pendingDepartures = new double[16];
+    private int pendingHead, pendingCount;
+    private double lastEventTime;
+
+    // Optional per-customer output series for warm-up detection and batch means
+    private BatchSeries waitTimeSeries;
+    private BatchSeries timeInSystemSeries;
+
+    // Time spent drawing batches from the source, measured only while instrumentation is active
+    private long generationTime;
+
+    public StreamingSimulation(double meanInterarrival, double meanService, RandomGenerator random) {
+        this(CustomerSource.exponential(meanInterarrival, meanService, random));
+    }
+
+    /**
+     * @param source Supplies the inter-arrival and service times of the customers.
+     */
+    public StreamingSimulation(CustomerSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Makes the simulation also record the waiting time and time in system of every customer into series.
+     *
+     * @param waitTimeSeries     Receives the waiting times.
+     * @param timeInSystemSeries Receives the times in system.
+     */
+    public void setOutputSeries(BatchSeries waitTimeSeries, BatchSeries timeInSystemSeries) {
+        this.waitTimeSeries = waitTimeSeries;
+        this.timeInSystemSeries = timeInSystemSeries;
+    }
+
+    /**
+     * Discards the statistics collected so far while keeping the state of the queue, so that
+     * later metrics leave out the warm-up. Customers that arrive afterwards are served after
+     * the last service end so far, so the busy time is measured from there.
+     */
+    public void resetStatistics() {
+        waitTimes.clear();
+        timesInSystem.clear();
+        idleTimes.clear();
+        waitTimeHistogram.clear();
+        timeInSystemHistogram.clear();
+        occupancy.clear();
+        totalServiceTime = 0;
+        statisticsStartTime = lastServiceEnd;
+    }
+
+    /**
+     * Hands over the statistics collected since the last reset or hand-over and then resets them,
+     * so a run can be cut into stretches and only some of them merged back later.
+     *
+     * @return The statistics of the stretch of the run just ended.
+     */
+    public Segment takeStatistics() {
+        Segment segment = new Segment();
+        segment.waitTimes.merge(waitTimes);
+        segment.timesInSystem.merge(timesInSystem);
+        segment.idleTimes.merge(idleTimes);
+        segment.waitTimeHistogram.merge(waitTimeHistogram);
+        segment.timeInSystemHistogram.merge(timeInSystemHistogram);
+        segment.occupancy.merge(occupancy);
+        segment.totalServiceTime = totalServiceTime;
+        segment.startTime = statisticsStartTime;
+        resetStatistics();
+        return segment;
+    }
+
+    /**
+     * Adds the statistics of an earlier stretch of this run back in. The stretches merged, together
+     * with the statistics collected since the last hand-over, must follow each other without gaps.
+     *
+     * @param segment Statistics handed over by {@link #takeStatistics()}.
+     */
+    public void mergeStatistics(Segment segment) {
+        waitTimes.merge(segment.waitTimes);
+        timesInSystem.merge(segment.timesInSystem);
+        idleTimes.merge(segment.idleTimes);
+        waitTimeHistogram.merge(segment.waitTimeHistogram);
+        timeInSystemHistogram.merge(segment.timeInSystemHistogram);
+        occupancy.merge(segment.occupancy);
+        totalServiceTime += segment.totalServiceTime;
+        statisticsStartTime = Math.min(statisticsStartTime, segment.startTime);
+    }
+
+    /**
+     * Simulates the next customers of the run.
+     *
+     * @param numCustomers Number of customers to simulate.
+     * @return Number of customers simulated, less than requested only if the source ran out.
+     */
+    public long advance(long numCustomers) {
+        return advance(numCustomers, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Simulates the next customers of the run, reporting progress as it goes.
+     *
+     * @param numCustomers Number of customers to simulate.
+     * @param monitor      Receives progress and may cancel the run.
+     * @return Number of customers simulated, less than requested only if the source ran out.
+     * @throws CancellationException    If the monitor cancels the run.
+     * @throws IllegalArgumentException If more than MAX_PENDING customers are in the system at once.
+     */
+    public long advance(long numCustomers, ProgressMonitor monitor) {
+        boolean timed = Instrumentation.isActive();
+        long done = 0;
+        while (done < numCustomers) {
+            if (done % PROGRESS_INTERVAL == 0) {
+                if (monitor.isCancelled()) throw new CancellationException("Simulation cancelled");
+                monitor.progress(done, numCustomers);
+            }
+
+            // Take the next batch of inter-arrival and service times from the source.
+            // The batch never straddles a progress report, since the interval is a multiple of the batch size.
+            long started = timed ? System.nanoTime() : 0;
+            int batch = source.fill(interarrivalBuffer, serviceBuffer, (int) Math.min(BATCH_SIZE, numCustomers - done));
+            if (timed) generationTime += System.nanoTime() - started;
+
+            for (int i = 0; i < batch; i++) {
+                double serviceTime = serviceBuffer[i];
+
+                // Advance the clock to the arrival of the new customer
+                currentTime += interarrivalBuffer[i];
+
+                // Service starts when both the customer and the server are available
+                double serviceStart = Math.max(currentTime, lastServiceEnd);
+                double serviceEnd = serviceStart + serviceTime;
+                double idleTime = Math.max(0, currentTime - lastServiceEnd); // Time the server was idle before this customer
+
+                // Fold the customer into the accumulators
+                waitTimes.add(serviceStart - currentTime);
+                timesInSystem.add(serviceEnd - currentTime);
+                idleTimes.add(idleTime);
+                waitTimeHistogram.record(serviceStart - currentTime);
+                timeInSystemHistogram.record(serviceEnd - currentTime);
+                if (waitTimeSeries != null) {
+                    waitTimeSeries.add(serviceStart - currentTime);
+                    timeInSystemSeries.add(serviceEnd - currentTime);
+                }
+                totalServiceTime += serviceTime;
+                recordArrival(currentTime, serviceEnd);
+
+                lastServiceEnd = serviceEnd;
+                customersSimulated++;
+            }
+            done += batch;
+            if (batch < BATCH_SIZE) break; // Either the last batch or the source ran out
+        }
+        monitor.progress(numCustomers, numCustomers);
+        return done;
+    }
+
+    // Advances the number in system past the departures up to the arrival, then adds the arriving customer
+    private void recordArrival(double arrivalTime, double departureTime) {
+        while (pendingCount > 0 && pendingDepartures[pendingHead] <= arrivalTime) {
+            double departure = pendingDepartures[pendingHead];
+            occupancy.add(pendingCount, departure - lastEventTime);
+            lastEventTime = departure;
+            pendingHead = (pendingHead + 1) & (pendingDepartures.length - 1);
+            pendingCount--;
+        }
+        occupancy.add(pendingCount, arrivalTime - lastEventTime);
+        lastEventTime = arrivalTime;
+
+        if (pendingCount == pendingDepartures.length) {
+            if (pendingCount == MAX_PENDING) {
+                throw new IllegalArgumentException("More than " + MAX_PENDING + " customers in the system at once;"
+                        + " the queue is unstable (ρ ≥ 1) or the trace overloads it");
+            }
+            // Double the ring buffer and move the pending departures to its start
+            double[] grown = new double[pendingDepartures.length * 2];
+            for (int i = 0; i < pendingCount; i++) {
+                grown[i] = pendingDepartures[(pendingHead + i) & (pendingDepartures.length - 1)];
+            }
+            pendingDepartures = grown;
+            pendingHead = 0;
+        }
+        pendingDepartures[(pendingHead + pendingCount) & (pendingDepartures.length - 1)] = departureTime;
+        pendingCount++;
+    }
+
+    /**
+     * Writes the whole state of the run: the clock, the accumulators, the histograms, the pending
+     * departures and the position of the source. Advancing a restored copy gives exactly the same
+     * results as advancing this simulation, as long as both advance in the same batches.
+     *
+     * @param out Receives the state.
+     * @throws IOException                   If the state cannot be written.
+     * @throws UnsupportedOperationException If the source cannot be checkpointed or output series are recorded.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        if (waitTimeSeries != null) throw new UnsupportedOperationException("Runs that record output series cannot be checkpointed");
+        out.writeLong(customersSimulated);
+        out.writeDouble(currentTime);
+        out.writeDouble(lastServiceEnd);
+        out.writeDouble(totalServiceTime);
+        out.writeDouble(statisticsStartTime);
+        waitTimes.writeState(out);
+        timesInSystem.writeState(out);
+        idleTimes.writeState(out);
+        waitTimeHistogram.writeState(out);
+        timeInSystemHistogram.writeState(out);
+        occupancy.writeState(out);
+        out.writeDouble(lastEventTime);
+        out.writeInt(pendingCount);
+        for (int i = 0; i < pendingCount; i++) {
+            out.writeDouble(pendingDepartures[(pendingHead + i) & (pendingDepartures.length - 1)]);
+        }
+        source.writeState(out);
+    }
+
+    /**
+     * Replaces the state of the run with one written by {@link #writeState(DataOutput)}.
+     *
+     * @param in Supplies the state.
+     * @throws IOException                   If the state cannot be read.
+     * @throws UnsupportedOperationException If the source cannot be checkpointed.
+     */
+    public void readState(DataInput in) throws IOException {
+        customersSimulated = in.readLong();
+        currentTime = in.readDouble();
+        lastServiceEnd = in.readDouble();
+        totalServiceTime = in.readDouble();
+        statisticsStartTime = in.readDouble();
+        waitTimes.readState(in);
+        timesInSystem.readState(in);
+        idleTimes.readState(in);
+        waitTimeHistogram.readState(in);
+        timeInSystemHistogram.readState(in);
+        occupancy.readState(in);
+        lastEventTime = in.readDouble();
+        pendingCount = in.readInt();
+        pendingDepartures = new double[Integer.highestOneBit(Math.max(16, pendingCount) - 1) << 1]; // A power of two
+        pendingHead = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            pendingDepartures[i] = in.readDouble();
+        }
+        source.readState(in);
+    }
+
+    /**
+     * @return Nanoseconds spent generating or reading the times of the customers while instrumentation was active.
+     */
+    public long getGenerationTime() {
+        return generationTime;
+    }
+
+    public long getCustomersSimulated() {
+        return customersSimulated;
+    }
+
+    public RunningStatistics getWaitTimes() {
+        return waitTimes;
+    }
+
+    public RunningStatistics getTimesInSystem() {
+        return timesInSystem;
+    }
+
+    public RunningStatistics getIdleTimes() {
+        return idleTimes;
+    }
+
+    public LogHistogram getWaitTimeHistogram() {
+        return waitTimeHistogram;
+    }
+
+    public LogHistogram getTimeInSystemHistogram() {
+        return timeInSystemHistogram;
+    }
+
+    /**
+     * @return The time-weighted number in system up to the last departure so far,
+     * as a new histogram that leaves the running state untouched.
+     */
+    public OccupancyHistogram getNumberInSystem() {
+        OccupancyHistogram histogram = occupancy.copy();
+        double time = lastEventTime;
+        for (int i = 0; i < pendingCount; i++) {
+            double departure = pendingDepartures[(pendingHead + i) & (pendingDepartures.length - 1)];
+            histogram.add(pendingCount - i, departure - time);
+            time = departure;
+        }
+        return histogram;
+    }
+
+    /**
+     * @return Proportion of the simulated horizon during which the server was busy.
+     */
+    public double getServerUtilization() {
+        double horizon = lastServiceEnd - statisticsStartTime;
+        return horizon > 0 ? totalServiceTime / horizon : 0;
+    }
+
+    /**
+     * Statistics of one stretch of a run, as handed over by {@link #takeStatistics()}.
+     */
+    public static final class Segment {
+        private final RunningStatistics waitTimes = new RunningStatistics();
+        private final RunningStatistics timesInSystem = new RunningStatistics();
+        private final RunningStatistics idleTimes = new RunningStatistics();
+        private final LogHistogram waitTimeHistogram = new LogHistogram();
+        private final LogHistogram timeInSystemHistogram = new LogHistogram();
+        private final OccupancyHistogram occupancy = new OccupancyHistogram();
+        private double totalServiceTime;
+        private double startTime;
+
+        private Segment() {
+        }
+
+        /**
+         * @return Number of customers simulated in the stretch.
+         */
+        public long getCustomers() {
+            return waitTimes.getCount();
+        }
+    }
+
+    /**
+     * Formats the summary metrics of the run.
+     *
+     * @return The performance metrics without any per-customer rows.
+     */
+    public String formatSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Customers Simulated: %d\n", customersSimulated));
+        summary.append("\nPerformance Metrics:\n");
+        summary.append(String.format("Average Waiting Time: %.4f (std. dev. %.4f)\n",
+                waitTimes.getMean(), waitTimes.getStandardDeviation()));
+        summary.append(String.format("Average Time in System: %.4f (std. dev. %.4f)\n",
+                timesInSystem.getMean(), timesInSystem.getStandardDeviation()));
+        summary.append(String.format("Average Idle Time: %.4f (std. dev. %.4f)\n",
+                idleTimes.getMean(), idleTimes.getStandardDeviation()));
+        summary.append(String.format("Total Idle Time: %.4f\n", idleTimes.getMean() * idleTimes.getCount()));
+        summary.append(String.format("Server Utilization: %.2f%%\n", getServerUtilization() * 100));
+        OccupancyHistogram numberInSystem = getNumberInSystem();
+        summary.append(String.format("Average Number in System (L): %.4f\n", numberInSystem.getMean()));
+        summary.append(waitTimeHistogram.formatPercentiles("Waiting Time"));
+        summary.append(timeInSystemHistogram.formatPercentiles("Time in System"));
+        summary.append(numberInSystem.formatPercentiles());
+        return summary.toString();
+    }
+}
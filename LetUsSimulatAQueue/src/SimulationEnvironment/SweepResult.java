@@ -0,0 +1,97 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Metrics of every configuration of a parameter grid, stored in primitive arrays.
+ * Configuration (λ index, μ index, c index, K index) is found at
+ * {@link #index(int, int, int, int)} in each of the metric arrays.
+ */
+
+public class SweepResult {
+    private final double[] lambdas;
+    private final double[] mus;
+    private final int[] servers;
+    private final int[] capacities;
+
+    final double[] p0;
+    final double[] pk;
+    final double[] l;
+    final double[] lq;
+    final double[] w;
+    final double[] wq;
+    final double[] lambdaEff;
+
+    SweepResult(double[] lambdas, double[] mus, int[] servers, int[] capacities) {
+        this.lambdas = lambdas;
+        this.mus = mus;
+        this.servers = servers;
+        this.capacities = capacities;
+        int size = Math.multiplyExact(Math.multiplyExact(lambdas.length, mus.length),
+                Math.multiplyExact(servers.length, capacities.length));
+        p0 = new double[size];
+        pk = new double[size];
+        l = new double[size];
+        lq = new double[size];
+        w = new double[size];
+        wq = new double[size];
+        lambdaEff = new double[size];
+    }
+
+    /**
+     * @return Position of a configuration in the metric arrays.
+     */
+    public int index(int lambdaIndex, int muIndex, int serversIndex, int capacityIndex) {
+        return ((lambdaIndex * mus.length + muIndex) * servers.length + serversIndex) * capacities.length + capacityIndex;
+    }
+
+    public int size() {
+        return p0.length;
+    }
+
+    public double[] getLambdas() {
+        return lambdas.clone();
+    }
+
+    public double[] getMus() {
+        return mus.clone();
+    }
+
+    public int[] getServers() {
+        return servers.clone();
+    }
+
+    public int[] getCapacities() {
+        return capacities.clone();
+    }
+
+    public double getP0(int index) {
+        return p0[index];
+    }
+
+    public double getPk(int index) {
+        return pk[index];
+    }
+
+    public double getL(int index) {
+        return l[index];
+    }
+
+    public double getLq(int index) {
+        return lq[index];
+    }
+
+    public double getW(int index) {
+        return w[index];
+    }
+
+    public double getWq(int index) {
+        return wq[index];
+    }
+
+    public double getLambdaEff(int index) {
+        return lambdaEff[index];
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays recorded (arrival time, service time) records as a customer source.
+ * The file is memory-mapped in windows, so traces larger than 2 GB stream through without
+ * being read into the heap, and records are parsed straight from the mapped bytes without
+ * allocating per record. Two formats are understood:
+ * <ul>
+ *     <li>CSV (files ending in {@code .csv}): one "arrival,service" line per customer, with an optional header line.</li>
+ *     <li>Binary (any other file): 16-byte records of two big-endian doubles, as written by DataOutputStream.writeDouble.
+ *     A file that starts with the header of a CustomerExporter binary export is read as that export instead:
+ *     its 32-byte records hold the arrival and service times first and the rest of each record is skipped.
+ *     A raw trace can only be mistaken for one if its first arrival time is around 1e83.</li>
+ * </ul>
+ * Arrival times must not decrease. The trace is shifted so that its first arrival happens at time zero.
+ * A checkpoint records the byte offset of the next record, so a resumed replay maps the file from there.
+ */
+
+public final class TraceReader implements CustomerSource, Closeable {
+    private static final long WINDOW_SIZE = 1L << 28;  // Bytes mapped at a time, a multiple of both record sizes
+    private static final int RECORD_SIZE = 16;         // Bytes of one binary trace record
+    private static final int MAX_LINE_LENGTH = 1 << 16; // Longest CSV line accepted
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final FileChannel channel;
+    private final boolean csv;
+    private final long fileSize;
+    private final long dataStart;   // Offset of the first binary record, after the header of an export
+    private final int recordSize;   // Bytes of one binary record
+
+    // Currently mapped window of the file and the read position within it
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+
+    private long recordsRead;
+    private long lineNumber;
+    private double previousArrival;
+
+    private TraceReader(FileChannel channel, boolean csv) throws IOException {
+        this.channel = channel;
+        this.csv = csv;
+        this.fileSize = channel.size();
+        boolean export = !csv && isExport(channel, fileSize);
+        this.dataStart = export ? CustomerExporter.BINARY_HEADER_SIZE : 0;
+        this.recordSize = export ? CustomerExporter.BINARY_RECORD_SIZE : RECORD_SIZE;
+        if (!csv && (fileSize - dataStart) % recordSize != 0) {
+            throw new IllegalArgumentException("Binary trace size is not a multiple of " + recordSize + " bytes");
+        }
+        map(dataStart);
+    }
+
+    // Tells a binary export from a raw trace by its header
+    private static boolean isExport(FileChannel channel, long fileSize) throws IOException {
+        if (fileSize < CustomerExporter.BINARY_HEADER_SIZE) return false;
+        ByteBuffer header = ByteBuffer.allocate(CustomerExporter.BINARY_HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) return false;
+        }
+        if (header.getInt(0) != CustomerExporter.BINARY_MAGIC) return false;
+        if (header.getInt(Integer.BYTES) != CustomerExporter.BINARY_VERSION) {
+            throw new IllegalArgumentException("Unsupported customer export version " + header.getInt(Integer.BYTES));
+        }
+        return true;
+    }
+
+    /**
+     * Opens a trace, choosing the format from the file name.
+     *
+     * @param path The trace file.
+     * @return A reader positioned at the first record.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static TraceReader open(Path path) throws IOException {
+        boolean csv = path.getFileName().toString().toLowerCase().endsWith(".csv");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new TraceReader(channel, csv);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return Number of records handed out so far.
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    /**
+     * @return Number of records in a binary trace, or -1 for a CSV trace whose length is only known once it is read.
+     */
+    public long getRecordCount() {
+        return csv ? -1 : (fileSize - dataStart) / recordSize;
+    }
+
+    /**
+     * @throws IllegalArgumentException If a record is malformed or arrives before its predecessor.
+     * @throws UncheckedIOException     If the file cannot be mapped.
+     */
+    @Override
+    public int fill(double[] interarrivalTimes, double[] serviceTimes, int count) {
+        try {
+            return csv ? fillCsv(interarrivalTimes, serviceTimes, count) : fillBinary(interarrivalTimes, serviceTimes, count);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(fileSize);
+        out.writeLong(windowStart + position);
+        out.writeLong(recordsRead);
+        out.writeLong(lineNumber);
+        out.writeDouble(previousArrival);
+    }
+
+    /**
+     * @throws IllegalArgumentException If the trace is not the size it had when the state was written.
+     */
+    @Override
+    public void readState(DataInput in) throws IOException {
+        if (in.readLong() != fileSize) throw new IllegalArgumentException("Trace has changed since the checkpoint");
+        long offset = in.readLong();
+        recordsRead = in.readLong();
+        lineNumber = in.readLong();
+        previousArrival = in.readDouble();
+        map(offset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private int fillBinary(double[] interarrivalTimes, double[] serviceTimes, int count) throws IOException {
+        int filled = 0;
+        while (filled < count) {
+            if (position == window.limit()) {
+                if (windowStart + position == fileSize) break; // End of the trace
+                map(windowStart + position);
+            }
+            double arrival = window.getDouble(position);
+            double service = window.getDouble(position + 8);
+            position += recordSize;
+            store(interarrivalTimes, serviceTimes, filled++, arrival, service);
+        }
+        return filled;
+    }
+
+    private int fillCsv(double[] interarrivalTimes, double[] serviceTimes, int count) throws IOException {
+        int filled = 0;
+        while (filled < count) {
+            // Find the end of the next line, remapping when it runs past the window
+            int lineEnd = findLineEnd();
+            if (lineEnd < 0) {
+                if (windowStart + position == fileSize) break; // End of the trace
+                if (window.limit() - position > MAX_LINE_LENGTH) {
+                    throw new IllegalArgumentException("Trace line " + (lineNumber + 1) + " is too long");
+                }
+                map(windowStart + position);
+                continue;
+            }
+            lineNumber++;
+            int lineStart = position;
+            position = lineEnd < window.limit() ? lineEnd + 1 : lineEnd;
+
+            // Skip blank lines and a header line that does not start with a number
+            int start = skipSpaces(lineStart, lineEnd);
+            if (start == lineEnd || (lineNumber == 1 && !startsNumber(window.get(start)))) continue;
+
+            int comma = start;
+            while (comma < lineEnd && window.get(comma) != ',') {
+                comma++;
+            }
+            if (comma == lineEnd) throw malformed();
+            double arrival = parseNumber(start, comma);
+            double service = parseNumber(comma + 1, lineEnd);
+            store(interarrivalTimes, serviceTimes, filled++, arrival, service);
+        }
+        return filled;
+    }
+
+    // Validates a record and converts its arrival time to an inter-arrival time
+    private void store(double[] interarrivalTimes, double[] serviceTimes, int index, double arrival, double service) {
+        if (!Double.isFinite(arrival) || !(service >= 0) || service == Double.POSITIVE_INFINITY) throw malformed();
+        if (recordsRead == 0) previousArrival = arrival;
+        if (arrival < previousArrival) {
+            throw new IllegalArgumentException("Trace record " + (recordsRead + 1) + " arrives before the previous one");
+        }
+        interarrivalTimes[index] = arrival - previousArrival;
+        serviceTimes[index] = service;
+        previousArrival = arrival;
+        recordsRead++;
+    }
+
+    // Index of the line feed ending the current line, the window limit at the end of the file, or -1 if the line runs past the window
+    private int findLineEnd() {
+        int limit = window.limit();
+        for (int i = position; i < limit; i++) {
+            if (window.get(i) == '\n') return i;
+        }
+        return windowStart + limit == fileSize && position < limit ? limit : -1;
+    }
+
+    private int skipSpaces(int from, int to) {
+        while (from < to && isSpace(window.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean startsNumber(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+    }
+
+    /**
+     * Parses a decimal number from the window. Numbers of up to 15 significant digits with a
+     * small exponent, i.e. every timestamp a logger would write, are converted exactly without
+     * allocating; other well-formed numbers fall back to Double.parseDouble. A number needs at
+     * least one mantissa digit and, after an exponent mark, at least one exponent digit, so a
+     * corrupted field such as "-", "." or "e5" is rejected rather than read as zero.
+     */
+    private double parseNumber(int from, int to) {
+        from = skipSpaces(from, to);
+        while (to > from && isSpace(window.get(to - 1))) {
+            to--;
+        }
+        if (from == to) throw malformed();
+
+        int i = from;
+        boolean negative = false;
+        if (window.get(i) == '-' || window.get(i) == '+') {
+            negative = window.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        int mantissaStart = i, fractionDigits = 0;
+        for (; i < to && isDigit(window.get(i)); i++) {
+            mantissa = accumulate(mantissa, window.get(i));
+            if (mantissa != 0) digits++;
+        }
+        int integerDigits = i - mantissaStart;
+        if (i < to && window.get(i) == '.') {
+            for (i++; i < to && isDigit(window.get(i)); i++) {
+                mantissa = accumulate(mantissa, window.get(i));
+                if (mantissa != 0) digits++;
+                exponent--;
+                fractionDigits++;
+            }
+        }
+        if (integerDigits + fractionDigits == 0) throw malformed();
+        if (i < to && (window.get(i) == 'e' || window.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (window.get(i) == '-' || window.get(i) == '+')) {
+                negativeExponent = window.get(i) == '-';
+                i++;
+            }
+            int explicit = 0;
+            int exponentStart = i;
+            for (; i < to && isDigit(window.get(i)); i++) {
+                explicit = Math.min(explicit * 10 + window.get(i) - '0', 10_000);
+            }
+            if (i == exponentStart) throw malformed();
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        // Trailing characters would otherwise reach Double.parseDouble, which takes suffixes like "1d"
+        if (i != to) throw malformed();
+        if (digits > 15 || mantissa >= MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            return parseSlow(from, to);
+        }
+
+        // Both the mantissa and the power of ten are exact doubles, so one operation rounds correctly
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    // Appends a digit, saturating instead of overflowing; the slow path then takes over
+    private static long accumulate(long mantissa, byte digit) {
+        return mantissa < MAX_EXACT_MANTISSA ? mantissa * 10 + (digit - '0') : mantissa;
+    }
+
+    private double parseSlow(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        window.get(from, bytes);
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException ex) {
+            throw malformed();
+        }
+    }
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException(csv
+                ? "Malformed trace record on line " + lineNumber
+                : "Malformed trace record " + (recordsRead + 1));
+    }
+
+    // Maps the window that starts at the given file offset
+    private void map(long start) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+        windowStart = start;
+        position = 0;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+/**
+ * Distribution of the number in system of an M/M/c/K model at a set of times,
+ * as computed by TransientSolver, with the metrics derived from it.
+ */
+
+public class TransientDistribution {
+    private final double lambda;
+    private final double mu;
+    private final int servers;
+    private final int capacity;
+    private final int initialCustomers;
+    private final double[] times;
+    private final double[][] probabilities;
+
+    public TransientDistribution(double lambda, double mu, int servers, int capacity, int initialCustomers,
+                                 double[] times, double[][] probabilities) {
+        this.lambda = lambda;
+        this.mu = mu;
+        this.servers = servers;
+        this.capacity = capacity;
+        this.initialCustomers = initialCustomers;
+        this.times = times;
+        this.probabilities = probabilities;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public double getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * @param index Index of the time.
+     * @param n     Number of customers in the system, between 0 and K.
+     * @return The probability of n customers at that time, Pn(t).
+     */
+    public double getProbability(int index, int n) {
+        return probabilities[index][n];
+    }
+
+    /**
+     * @return Expected number in system at the time, L(t).
+     */
+    public double getL(int index) {
+        double l = 0;
+        for (int n = 1; n <= capacity; n++) {
+            l += n * probabilities[index][n];
+        }
+        return l;
+    }
+
+    /**
+     * @return Expected number waiting in the queue at the time, Lq(t).
+     */
+    public double getLq(int index) {
+        double lq = 0;
+        for (int n = servers + 1; n <= capacity; n++) {
+            lq += (n - servers) * probabilities[index][n];
+        }
+        return lq;
+    }
+
+    public double getP0(int index) {
+        return probabilities[index][0];
+    }
+
+    /**
+     * @return Probability that the system is full at the time, so arrivals are blocked, PK(t).
+     */
+    public double getPk(int index) {
+        return probabilities[index][capacity];
+    }
+
+    /**
+     * Formats the metrics at every time as a table.
+     *
+     * @return The model, the initial state and one line per time.
+     */
+    public String format() {
+        StringBuilder result = new StringBuilder(String.format("%s Transient Model (λ = %.3f, μ = %.3f, K = %d, %d customers at t = 0):\n",
+                servers == 1 ? "M/M/1/K" : "M/M/" + servers + "/K", lambda, mu, capacity, initialCustomers));
+        result.append("t          L(t)       Lq(t)      P0(t)    PK(t)\n");
+        for (int i = 0; i < times.length; i++) {
+            result.append(String.format("%-10.3f %-10.3f %-10.3f %-8.4f %.4f\n",
+                    times[i], getL(i), getLq(i), getP0(i), getPk(i)));
+        }
+        return result.toString();
+    }
+}
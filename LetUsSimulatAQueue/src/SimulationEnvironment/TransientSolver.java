@@ -0,0 +1,307 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Time-dependent solver for the M/M/1/K and M/M/c/K models, by uniformization.
+ * The birth-death chain is observed at the events of a Poisson process of rate Λ = λ + cμ,
+ * so the distribution at time t is Σ Poisson(j; Λt) · p(0) Pʲ with P = I + Q/Λ. The Poisson
+ * weights are built outwards from their mode and truncated where they become negligible, and
+ * P is never formed: one step is a tridiagonal update of the state vector in place of a matrix
+ * product. All time points share the same sequence of vectors p(0) Pʲ, so a single sweep serves
+ * the whole set of times. The sweep is split over the cores by state rather than by time: the
+ * states carrying probability are cut into contiguous blocks that each advance STEPS_PER_TASK
+ * steps on their own before the blocks meet again, so the work is shared and a single long
+ * horizon runs in parallel too. Once the vectors stop changing the chain has reached steady
+ * state and the remaining weights are applied to the last vector, which bounds the work of long
+ * horizons.
+ */
+
+public class TransientSolver {
+    private static final double NEGLIGIBLE_WEIGHT = 1e-14;  // Poisson weights below this share of the mode are dropped
+    private static final double STEADY_STATE_CHANGE = 1e-12; // Change per step below which the vectors have converged
+    private static final double DROPPED = 1e-30;             // Probability below which a state at the edge is cleared
+    private static final int STEPS_PER_TASK = 256;           // Steps a block advances between synchronizations
+    private static final int MIN_BLOCK_STATES = 4096;        // Fewest states worth a block of their own
+
+    /**
+     * @return The distribution of the M/M/1/K model at the given times.
+     */
+    public static TransientDistribution mm1k(double lambda, double mu, int k, int initialCustomers, double[] times) {
+        return solve(lambda, mu, 1, k, initialCustomers, times);
+    }
+
+    /**
+     * @return The distribution of the M/M/c/K model at the given times.
+     */
+    public static TransientDistribution mmck(double lambda, double mu, int c, int k, int initialCustomers, double[] times) {
+        return solve(lambda, mu, c, k, initialCustomers, times);
+    }
+
+    /**
+     * Computes the distribution of the number in system at each of the given times.
+     *
+     * @param lambda           Arrival rate (λ).
+     * @param mu               Service rate of each server (μ).
+     * @param c                Number of servers.
+     * @param k                System capacity, at least c and finite.
+     * @param initialCustomers Number of customers in the system at time zero.
+     * @param times            Times at which to evaluate the distribution, in any order.
+     * @return The distributions, in the order of the times.
+     */
+    public static TransientDistribution solve(double lambda, double mu, int c, int k, int initialCustomers,
+                                              double[] times) {
+        if (lambda < 0 || mu <= 0) throw new IllegalArgumentException("Rates must be positive");
+        if (c <= 0) throw new IllegalArgumentException("Number of servers must be positive");
+        if (k < c) throw new IllegalArgumentException("Capacity must be at least the number of servers");
+        if (k == QueueSolver.UNLIMITED) throw new IllegalArgumentException("Transient analysis needs a finite capacity (K)");
+        if (initialCustomers < 0 || initialCustomers > k) {
+            throw new IllegalArgumentException("Initial number of customers must be between 0 and K");
+        }
+        for (double t : times) {
+            if (!(t >= 0) || t == Double.POSITIVE_INFINITY) throw new IllegalArgumentException("Times must be finite and not negative");
+        }
+
+        double rate = lambda + c * mu; // Uniformization rate, the largest total rate out of any state
+        double[][] probabilities = new double[times.length][];
+        Instrumentation.Span span = Instrumentation.start(Instrumentation.Phase.ANALYSIS);
+        try {
+            new Sweep(lambda / rate, mu / rate, c, k, rate, times, probabilities).run(initialCustomers);
+        } finally {
+            span.close();
+        }
+        return new TransientDistribution(lambda, mu, c, k, initialCustomers, times.clone(), probabilities);
+    }
+
+    /**
+     * One walk through the vectors p(0) Pʲ, adding each to the distributions of the times whose
+     * Poisson weights cover j. The walk goes in rounds of STEPS_PER_TASK steps. In a round every
+     * block copies its states together with as many neighbouring states as the steps can reach,
+     * advances that copy on its own and writes its states back, so the blocks only wait for each
+     * other between rounds; each block also adds its own states to the distributions.
+     */
+    private static final class Sweep {
+        private final double arrival;      // Probability of an arrival in one step
+        private final double departure;    // Probability of a departure from one busy server in one step
+        private final int c;
+        private final int k;
+        private final double[][] weights;  // Non-negligible Poisson weights of every time
+        private final int[] first;         // Step of the first weight of every time
+        private final int last;            // Last step with a weight
+        private final double[][] probabilities;
+        private final int workers;
+        private final double[][][] buffers; // Pair of buffers of every block, reused across rounds
+
+        Sweep(double arrival, double departure, int c, int k, double rate, double[] times, double[][] probabilities) {
+            this.arrival = arrival;
+            this.departure = departure;
+            this.c = c;
+            this.k = k;
+            this.probabilities = probabilities;
+            this.weights = new double[times.length][];
+            this.first = new int[times.length];
+            int last = 0;
+            for (int t = 0; t < times.length; t++) {
+                probabilities[t] = new double[k + 1];
+                double mean = rate * times[t];
+                first[t] = poissonStart(mean);
+                weights[t] = poissonWeights(mean, first[t]);
+                last = Math.max(last, first[t] + weights[t].length - 1);
+            }
+            this.last = last;
+            this.workers = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+            this.buffers = new double[workers][2][];
+        }
+
+        void run(int initialCustomers) {
+            // The shared vector and the one the blocks write the next round into, with the states each holds.
+            // Entries outside those states are zero, so a round only visits the states that carry probability.
+            double[] vector = new double[k + 1];
+            double[] next = new double[k + 1];
+            int from = initialCustomers, to = initialCustomers;
+            int nextFrom = initialCustomers, nextTo = initialCustomers;
+            vector[initialCustomers] = 1;
+            add(0, vector, 0, from, to);
+
+            for (int step = 0; step < last; ) {
+                int steps = Math.min(STEPS_PER_TASK, last - step);
+                int roundFrom = Math.max(0, from - steps), roundTo = Math.min(k, to + steps);
+                int blocks = Math.max(1, Math.min(workers, (roundTo - roundFrom + 1) / MIN_BLOCK_STATES));
+
+                // Clear what the buffer still holds from two rounds back outside the new range
+                for (int n = nextFrom; n < roundFrom; n++) {
+                    next[n] = 0;
+                }
+                for (int n = roundTo + 1; n <= nextTo; n++) {
+                    next[n] = 0;
+                }
+
+                double[] changes = new double[blocks];
+                double[] source = vector, target = next;
+                int start = step;
+                if (blocks == 1) {
+                    changes[0] = advance(0, 1, start, steps, source, target, roundFrom, roundTo);
+                } else {
+                    IntStream.range(0, blocks).parallel().forEach(block ->
+                            changes[block] = advance(block, blocks, start, steps, source, target, roundFrom, roundTo));
+                }
+                step += steps;
+                vector = target;
+                next = source;
+                nextFrom = from;
+                nextTo = to;
+
+                // Trim negligible probability off both ends
+                from = roundFrom;
+                to = roundTo;
+                while (to > from && vector[to] < DROPPED) {
+                    vector[to--] = 0;
+                }
+                while (from < to && vector[from] < DROPPED) {
+                    vector[from++] = 0;
+                }
+
+                double change = 0;
+                for (double blockChange : changes) {
+                    change += blockChange;
+                }
+                if (change < STEADY_STATE_CHANGE) {
+                    // Converged: the weights still to come all apply to the current vector
+                    for (int t = 0; t < weights.length; t++) {
+                        double remaining = 0;
+                        for (int offset = Math.max(0, step + 1 - first[t]); offset < weights[t].length; offset++) {
+                            remaining += weights[t][offset];
+                        }
+                        if (remaining > 0) addWeighted(probabilities[t], remaining, vector, 0, from, to);
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Advances one block of the round by the given number of steps on a private copy.
+         *
+         * @return The L1 distance between the block's states before and after the last step.
+         */
+        private double advance(int block, int blocks, int start, int steps, double[] source, double[] target,
+                               int roundFrom, int roundTo) {
+            long width = roundTo - roundFrom + 1;
+            int blockFrom = roundFrom + (int) (width * block / blocks);
+            int blockTo = roundFrom + (int) (width * (block + 1) / blocks) - 1;
+
+            // Copy the block with every state that can reach it within the round
+            int base = Math.max(0, blockFrom - steps), top = Math.min(k, blockTo + steps);
+            int length = top - base + 1;
+            double[][] pair = buffers[block];
+            if (pair[0] == null || pair[0].length < length) {
+                pair[0] = new double[length];
+                pair[1] = new double[length];
+            }
+            double[] current = pair[0], following = pair[1];
+            System.arraycopy(source, base, current, 0, length);
+
+            double change = 0;
+            for (int m = 1; m <= steps; m++) {
+                // The copy is exact one state less far out on each side per step, except at 0 and K
+                int lo = base == 0 ? 0 : base + m;
+                int hi = top == k ? k : top - m;
+                step(current, following, base, lo, hi);
+                if (m == steps) {
+                    for (int n = blockFrom; n <= blockTo; n++) {
+                        change += Math.abs(following[n - base] - current[n - base]);
+                    }
+                }
+                double[] swap = current;
+                current = following;
+                following = swap;
+                add(start + m, current, base, blockFrom, blockTo);
+            }
+            System.arraycopy(current, blockFrom - base, target, blockFrom, blockTo - blockFrom + 1);
+            return change;
+        }
+
+        /**
+         * One step of the uniformized chain on the states lo to hi, next = vector · P, computed from the
+         * three diagonals of P. Both arrays hold the states from base on.
+         */
+        private void step(double[] vector, double[] next, int base, int lo, int hi) {
+            for (int n = lo; n <= hi; n++) {
+                int i = n - base;
+                double up = n < k ? arrival : 0;               // Probability of an arrival from state n
+                double down = Math.min(n, c) * departure;     // Probability of a departure from state n
+                double value = vector[i] * (1 - up - down);
+                if (n > 0) value += vector[i - 1] * arrival;
+                if (n < k) value += vector[i + 1] * Math.min(n + 1, c) * departure;
+                next[i] = value;
+            }
+        }
+
+        // Adds the states from to of the vector at the given step to every time whose weights cover the step
+        private void add(int step, double[] vector, int base, int from, int to) {
+            for (int t = 0; t < weights.length; t++) {
+                int offset = step - first[t];
+                if (offset >= 0 && offset < weights[t].length) {
+                    addWeighted(probabilities[t], weights[t][offset], vector, base, from, to);
+                }
+            }
+        }
+    }
+
+    private static void addWeighted(double[] target, double weight, double[] vector, int base, int from, int to) {
+        for (int n = from; n <= to; n++) {
+            target[n] += weight * vector[n - base];
+        }
+    }
+
+    // First step whose Poisson weight is not negligible
+    private static int poissonStart(double mean) {
+        int mode = (int) Math.floor(mean);
+        double weight = 1;
+        int j = mode;
+        while (j > 0) {
+            weight *= j / mean;
+            if (weight < NEGLIGIBLE_WEIGHT) break;
+            j--;
+        }
+        return j;
+    }
+
+    /**
+     * Poisson weights from the given first step up to the last one that is not negligible, normalized
+     * to sum to one. They are built outwards from the mode with weight 1, so e^-mean never has to be
+     * formed and no weight underflows however long the horizon.
+     */
+    private static double[] poissonWeights(double mean, int first) {
+        int mode = (int) Math.floor(mean);
+        int last = mode;
+        double weight = 1;
+        while (mean > 0) {
+            weight *= mean / (last + 1);
+            if (weight < NEGLIGIBLE_WEIGHT) break;
+            last++;
+        }
+
+        double[] weights = new double[last - first + 1];
+        weights[mode - first] = 1;
+        for (int j = mode; j > first; j--) {
+            weights[j - 1 - first] = weights[j - first] * j / mean;
+        }
+        for (int j = mode; j < last; j++) {
+            weights[j + 1 - first] = weights[j - first] * mean / (j + 1);
+        }
+        double sum = 0;
+        for (double w : weights) {
+            sum += w;
+        }
+        for (int j = 0; j < weights.length; j++) {
+            weights[j] /= sum;
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * xoshiro256++ pseudo-random generator (Blackman and Vigna).
+ * Unlike java.util.Random it has no synchronized seed, its whole state is four longs
+ * that can be saved and restored, and its jump function hands out non-overlapping
+ * streams of 2^128 values each for parallel replications.
+ */
+
+public final class Xoshiro256PlusPlus implements RandomGenerator {
+    private static final long[] JUMP = {0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL};
+
+    private long s0, s1, s2, s3;
+
+    /**
+     * Creates a generator whose state is expanded from the seed with SplitMix64.
+     *
+     * @param seed The seed; equal seeds give equal sequences.
+     */
+    public Xoshiro256PlusPlus(long seed) {
+        long x = seed;
+        s0 = splitMix64(x += 0x9e3779b97f4a7c15L);
+        s1 = splitMix64(x += 0x9e3779b97f4a7c15L);
+        s2 = splitMix64(x += 0x9e3779b97f4a7c15L);
+        s3 = splitMix64(x + 0x9e3779b97f4a7c15L);
+    }
+
+    /**
+     * Restores a generator from a saved state.
+     *
+     * @param state The four state words returned by {@link #getState()}.
+     */
+    public Xoshiro256PlusPlus(long[] state) {
+        setState(state);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s0 + s3, 23) + s0;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return A copy of the four state words, e.g. for a checkpoint.
+     */
+    public long[] getState() {
+        return new long[]{s0, s1, s2, s3};
+    }
+
+    /**
+     * Moves the generator back to a saved state.
+     *
+     * @param state The four state words returned by {@link #getState()}.
+     */
+    public void setState(long[] state) {
+        if (state.length != 4) throw new IllegalArgumentException("State must have four words");
+        if ((state[0] | state[1] | state[2] | state[3]) == 0) throw new IllegalArgumentException("State must not be all zero");
+        s0 = state[0];
+        s1 = state[1];
+        s2 = state[2];
+        s3 = state[3];
+    }
+
+    /**
+     * Hands out the current stream and moves this generator 2^128 values ahead,
+     * so successive calls return streams that never overlap.
+     *
+     * @return A generator positioned where this one was.
+     */
+    public Xoshiro256PlusPlus nextStream() {
+        Xoshiro256PlusPlus stream = new Xoshiro256PlusPlus(getState());
+        jump();
+        return stream;
+    }
+
+    // Advances the state by 2^128 calls to nextLong
+    private void jump() {
+        long j0 = 0, j1 = 0, j2 = 0, j3 = 0;
+        for (long jump : JUMP) {
+            for (int b = 0; b < 64; b++) {
+                if ((jump & (1L << b)) != 0) {
+                    j0 ^= s0;
+                    j1 ^= s1;
+                    j2 ^= s2;
+                    j3 ^= s3;
+                }
+                nextLong();
+            }
+        }
+        s0 = j0;
+        s1 = j1;
+        s2 = j2;
+        s3 = j3;
+    }
+
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Exponential variates by the Ziggurat method of Marsaglia and Tsang (2000) with 256 layers.
+ * About 99% of the draws cost one random long, a comparison and a multiplication; only the
+ * rest fall back to a logarithm or exponential. The layer index and the position within the
+ * layer are taken from disjoint bits of the random long, so they are independent.
+ */
+
+public final class ZigguratExponential {
+    private static final double R = 7.697117470131487;      // Start of the tail
+    private static final double V = 3.949659822581572e-3;   // Area of each layer
+    private static final double M = 4294967296.0;            // 2^32
+
+    private static final long[] K = new long[256];
+    private static final double[] W = new double[256];
+    private static final double[] F = new double[256];
+
+    static {
+        // Layer tables as in the paper
+        double de = R, te = R;
+        double q = V / Math.exp(-de);
+        K[0] = (long) ((de / q) * M);
+        K[1] = 0;
+        W[0] = q / M;
+        W[255] = de / M;
+        F[0] = 1;
+        F[255] = Math.exp(-de);
+        for (int i = 254; i >= 1; i--) {
+            de = -Math.log(V / de + Math.exp(-de));
+            K[i + 1] = (long) ((de / te) * M);
+            te = de;
+            F[i] = Math.exp(-de);
+            W[i] = de / M;
+        }
+    }
+
+    private ZigguratExponential() {
+    }
+
+    /**
+     * Draws one exponential variate with mean 1.
+     *
+     * @param random The random stream.
+     * @return A variate of the standard exponential distribution.
+     */
+    public static double next(RandomGenerator random) {
+        while (true) {
+            long bits = random.nextLong();
+            int layer = (int) bits & 0xff;
+            long position = bits >>> 32;
+            if (position < K[layer]) {
+                return position * W[layer]; // Inside the rectangle of the layer
+            }
+            if (layer == 0) {
+                return R - Math.log(1 - random.nextDouble()); // Tail beyond R
+            }
+            double x = position * W[layer];
+            if (F[layer] + random.nextDouble() * (F[layer - 1] - F[layer]) < Math.exp(-x)) {
+                return x; // Wedge between the rectangle and the curve
+            }
+        }
+    }
+
+    /**
+     * Fills part of a buffer with exponential variates.
+     *
+     * @param random The random stream.
+     * @param mean   Mean of the variates.
+     * @param buffer The buffer to fill.
+     * @param from   First index to fill.
+     * @param to     Index after the last one to fill.
+     */
+    public static void fill(RandomGenerator random, double mean, double[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            buffer[i] = mean * next(random);
+        }
+    }
+}
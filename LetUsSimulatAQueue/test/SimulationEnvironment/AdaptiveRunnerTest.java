@@ -0,0 +1,30 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that an adaptive run leaves out the detected warm-up rather than its whole pilot.
+ */
+
+class AdaptiveRunnerTest {
+    @Test
+    void discardsOnlyTheWarmup() {
+        StreamingSimulation simulation = new StreamingSimulation(1, 0.9, new Xoshiro256PlusPlus(4));
+        AdaptiveSummary summary = AdaptiveRunner.run(simulation, 0.01, 0.95, 200_000, ProgressMonitor.NONE);
+
+        long warmup = summary.getWarmupCustomers();
+        long start = summary.getStatisticsStart();
+        assertTrue(warmup >= 0, "warm-up located");
+        assertTrue(start >= warmup, "the warm-up is left out");
+        assertTrue(start < 10_000, "less than the whole pilot is left out: " + start);
+        assertEquals(summary.getCustomersSimulated() - start, simulation.getWaitTimes().getCount());
+        assertEquals(summary.getCustomersSimulated() - start, simulation.getWaitTimeHistogram().getCount());
+    }
+}
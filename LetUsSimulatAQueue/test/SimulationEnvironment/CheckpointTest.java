@@ -0,0 +1,93 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that checkpointed runs resume to the same results as uninterrupted ones, and that a
+ * checkpoint is refused by a run of another length.
+ */
+
+class CheckpointTest {
+    private static final long SEED = 42;
+    private static final long INTERVAL = 100_000;
+
+    @TempDir
+    Path directory;
+
+    // A run stopped part way and started again matches a run that was never stopped
+    @Test
+    void resumeAfterCancel() {
+        long customers = 1_000_000;
+        SimulationResult plain = new QueueSimulator().run(config(customers, null), ProgressMonitor.NONE);
+
+        SimulationConfig checkpointed = config(customers, directory.resolve("cancel.ckpt"));
+        assertThrows(CancellationException.class,
+                () -> new QueueSimulator().run(checkpointed, cancelAfter(customers / 2)));
+        assertTrue(Files.exists(checkpointed.getCheckpoint()), "no checkpoint was written before the cancel");
+
+        SimulationResult resumed = new QueueSimulator().run(checkpointed, ProgressMonitor.NONE);
+        assertSame(plain, resumed);
+    }
+
+    // A checkpoint left at the end of a run whose length is not a whole number of batches cannot be
+    // extended into a longer run, since its last batch of times was cut short
+    @Test
+    void resumeAfterExtend() {
+        long customers = 1_000_000;
+        long extended = 3_000_000;
+        assertNotEquals(0, customers % StreamingSimulation.BATCH_SIZE, "the first run ends on a whole batch");
+        Path file = directory.resolve("extend.ckpt");
+        new QueueSimulator().run(config(customers, file), ProgressMonitor.NONE);
+        assertThrows(IllegalArgumentException.class,
+                () -> new QueueSimulator().run(config(extended, file), ProgressMonitor.NONE));
+
+        // The longer run gets its own checkpoint and matches a run without one
+        SimulationResult plain = new QueueSimulator().run(config(extended, null), ProgressMonitor.NONE);
+        SimulationResult checkpointed = new QueueSimulator().run(config(extended, directory.resolve("extended.ckpt")),
+                ProgressMonitor.NONE);
+        assertSame(plain, checkpointed);
+    }
+
+    private static SimulationConfig config(long customers, Path checkpoint) {
+        SimulationConfig config = new SimulationConfig(1, 0.9, customers, 1, QueueSolver.UNLIMITED, 1, false, SEED);
+        return checkpoint == null ? config : config.withCheckpoint(checkpoint, INTERVAL);
+    }
+
+    private static ProgressMonitor cancelAfter(long customers) {
+        return new ProgressMonitor() {
+            private volatile boolean cancelled;
+
+            @Override
+            public void progress(long completed, long total) {
+                if (completed >= customers) cancelled = true;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+        };
+    }
+
+    // Bit-for-bit the same metrics and report
+    private static void assertSame(SimulationResult expected, SimulationResult actual) {
+        assertEquals(expected.getAverageWaitTime(), actual.getAverageWaitTime(), 0);
+        assertEquals(expected.getAverageTimeInSystem(), actual.getAverageTimeInSystem(), 0);
+        assertEquals(expected.getServerUtilization(), actual.getServerUtilization(), 0);
+        assertEquals(expected.getReport(), actual.getReport());
+    }
+}
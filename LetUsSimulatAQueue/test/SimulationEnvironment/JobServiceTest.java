@@ -0,0 +1,62 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the job service refuses rates it cannot solve before anything is computed or cached.
+ */
+
+class JobServiceTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private JobService service;
+
+    @BeforeEach
+    void start() throws IOException {
+        service = new JobService(0, 2, 16);
+        service.start();
+    }
+
+    @AfterEach
+    void stop() {
+        service.stop(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/mm1?lambda=NaN&mu=1", "/mm1?lambda=1&mu=Infinity", "/mm1?lambda=-1&mu=1",
+            "/mm1?lambda=0.5&mu=0", "/simulate?interarrival=NaN&service=1&customers=10",
+            "/simulate?interarrival=1&service=0.5&customers=10&precision=NaN"})
+    void rejectsInvalidNumbers(String request) throws Exception {
+        HttpResponse<String> response = get(request);
+        assertEquals(400, response.statusCode(), response.body());
+        assertTrue(get("/stats").body().contains("\"cached\":0"));
+    }
+
+    @Test
+    void solvesValidRequests() throws Exception {
+        HttpResponse<String> response = get("/mm1?lambda=0.5&mu=1");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"l\":1.0"), response.body());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        URI uri = URI.create("http://127.0.0.1:" + service.getPort() + path);
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that the number-in-system histogram stays bounded and exact in its mean and maximum,
+ * and that a streaming run of an unstable queue stops at the pending-departure limit.
+ */
+
+class OccupancyHistogramTest {
+    private static final int ABOVE = OccupancyHistogram.LEVELS + 1000;
+
+    @Test
+    void keepsMeanAndMaximumOfOverflowLevels() throws IOException {
+        OccupancyHistogram histogram = new OccupancyHistogram();
+        histogram.add(0, 2);
+        histogram.add(3, 1);
+        histogram.add(ABOVE, 1);
+        histogram.add(2 * ABOVE, 0);
+
+        assertEquals(4, histogram.getTotalTime(), 0);
+        assertEquals((3 + ABOVE) / 4.0, histogram.getMean(), 1e-12);
+        assertEquals(ABOVE, histogram.getMaxLevel());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(3, histogram.getPercentile(75));
+        assertEquals(OccupancyHistogram.LEVELS, histogram.getPercentile(99));
+        assertEquals(0, histogram.getProbability(ABOVE), 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeState(new DataOutputStream(bytes));
+        OccupancyHistogram restored = new OccupancyHistogram();
+        restored.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        OccupancyHistogram merged = restored.copy();
+        merged.merge(histogram);
+
+        assertEquals(histogram.getMean(), restored.getMean(), 0);
+        assertEquals(ABOVE, restored.getMaxLevel());
+        assertEquals(8, merged.getTotalTime(), 0);
+        assertEquals(histogram.getMean(), merged.getMean(), 1e-12);
+        assertEquals(ABOVE, merged.getMaxLevel());
+    }
+
+    @Test
+    void rejectsStreamingRunsBeyondThePendingLimit() {
+        StreamingSimulation simulation = new StreamingSimulation(1, 2, new Xoshiro256PlusPlus(7));
+        assertThrows(IllegalArgumentException.class, () -> simulation.advance(4L * StreamingSimulation.MAX_PENDING));
+    }
+}
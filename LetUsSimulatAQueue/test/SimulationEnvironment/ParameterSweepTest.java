@@ -0,0 +1,64 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the row-wise closed forms of ParameterSweep against QueueSolver, one configuration at a time.
+ */
+
+class ParameterSweepTest {
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void matchesSolverOnEveryFeasibleConfiguration() {
+        double[] lambdas = {0, 0.5, 1, 2.999999, 3, 3.000001, 7, 250};
+        double[] mus = {1, 2.5};
+        int[] servers = {1, 2, 3, 8, 100, 300};
+        int[] capacities = {1, 3, 5, 120, 20000, QueueSolver.UNLIMITED};
+        SweepResult result = ParameterSweep.evaluate(lambdas, mus, servers, capacities);
+
+        for (int a = 0; a < lambdas.length; a++) {
+            for (int b = 0; b < mus.length; b++) {
+                for (int s = 0; s < servers.length; s++) {
+                    for (int k = 0; k < capacities.length; k++) {
+                        int index = result.index(a, b, s, k);
+                        if (capacities[k] < servers[s]) continue;
+                        QueueMetrics expected = QueueSolver.solve(lambdas[a], mus[b], servers[s], capacities[k]);
+                        String where = "λ=" + lambdas[a] + " μ=" + mus[b] + " c=" + servers[s] + " K=" + capacities[k];
+                        assertClose(expected.getP0(), result.getP0(index), where + " P0");
+                        assertClose(expected.getPk(), result.getPk(index), where + " Pk");
+                        assertClose(expected.getL(), result.getL(index), where + " L");
+                        assertClose(expected.getLq(), result.getLq(index), where + " Lq");
+                        assertClose(expected.getW(), result.getW(index), where + " W");
+                        assertClose(expected.getWq(), result.getWq(index), where + " Wq");
+                        assertClose(expected.getLambdaEff(), result.getLambdaEff(index), where + " λeff");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void leavesInfeasibleConfigurationsUndefined() {
+        SweepResult result = ParameterSweep.evaluate(new double[]{1}, new double[]{1}, new int[]{2}, new int[]{1});
+        assertTrue(Double.isNaN(result.getL(0)));
+        assertTrue(Double.isNaN(result.getW(0)));
+        assertTrue(Double.isNaN(result.getWq(0)));
+        assertTrue(Double.isNaN(result.getLambdaEff(0)));
+    }
+
+    private static void assertClose(double expected, double actual, String message) {
+        if (Double.isInfinite(expected)) {
+            assertEquals(expected, actual, message);
+        } else {
+            assertEquals(expected, actual, TOLERANCE * Math.max(1, Math.abs(expected)), message);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that replicated runs refuse totals that do not fit in a long before simulating anything.
+ */
+
+class ReplicationTotalsTest {
+    private static final long HUGE = Long.MAX_VALUE / 3;
+
+    @Test
+    void rejectsOverflowingCustomerTotals() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReplicationRunner.run(1, 0.5, HUGE, 4, 1, 0.95, ProgressMonitor.NONE));
+    }
+
+    @Test
+    void rejectsOverflowingArrivalTotals() {
+        JacksonNetwork network = JacksonNetwork.tandem(2, 0.5, 1, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> NetworkRunner.run(network, HUGE, 4, 1, 0.95, ProgressMonitor.NONE));
+    }
+
+    @Test
+    void rejectsOverflowingComparisonTotals() {
+        SimulationConfig a = new SimulationConfig(1, 0.5, HUGE, 1, QueueSolver.UNLIMITED, 2, false, 1);
+        SimulationConfig b = new SimulationConfig(1, 0.6, HUGE, 1, QueueSolver.UNLIMITED, 2, false, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> ComparisonRunner.compare(a, b, true, false, 0.95, ProgressMonitor.NONE));
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Author: Ahmed Hamoda Elhanafy
+ */
+
+package SimulationEnvironment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the CSV number parser of TraceReader on well-formed and corrupted fields.
+ */
+
+class TraceReaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsWellFormedNumbers() throws IOException {
+        double[] interarrival = new double[6];
+        double[] service = new double[6];
+        int read = replay("arrival,service\n10,1\n10.5,.25\n12.,2e-1\n1.3e1,+0.5E+1\n 14 , 0 \n15,123456789012345678\n",
+                interarrival, service);
+        assertEquals(6, read);
+        assertArrayEquals(new double[]{0, 0.5, 1.5, 1, 1, 1}, interarrival, 1e-12);
+        assertArrayEquals(new double[]{1, 0.25, 0.2, 5, 0, 123456789012345678.0}, service, 0);
+    }
+
+    @Test
+    void replaysBinaryCustomerExports() throws IOException {
+        CustomerStore customers = new CustomerStore();
+        customers.add(1, 2, 1, 3);
+        customers.add(2.5, 0.5, 3, 3.5);
+        customers.add(4, 1, 4, 5);
+        Path file = directory.resolve("customers.bin");
+        CustomerExporter.export(customers, file);
+
+        double[] interarrival = new double[4];
+        double[] service = new double[4];
+        try (TraceReader reader = TraceReader.open(file)) {
+            assertEquals(3, reader.getRecordCount());
+            assertEquals(3, reader.fill(interarrival, service, 4));
+        }
+        assertArrayEquals(new double[]{0, 1.5, 1.5, 0}, interarrival, 0);
+        assertArrayEquals(new double[]{2, 0.5, 1, 0}, service, 0);
+    }
+
+    // Fields without mantissa or exponent digits, or with trailing characters, are not numbers
+    @ParameterizedTest
+    @ValueSource(strings = {"-,1", ".,1", "+,1", "-.,1", "1,e5", "1,.e5", "1,1e", "1,1e+", "1,1.5x", "1,1d", "1,--1"})
+    void rejectsMalformedFields(String line) throws IOException {
+        double[] interarrival = new double[3];
+        double[] service = new double[3];
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> replay("arrival,service\n0,1\n" + line + "\n3,1\n", interarrival, service));
+        assertEquals("Malformed trace record on line 3", ex.getMessage());
+    }
+
+    private int replay(String csv, double[] interarrivalTimes, double[] serviceTimes) throws IOException {
+        Path file = directory.resolve("trace.csv");
+        Files.writeString(file, csv);
+        try (TraceReader reader = TraceReader.open(file)) {
+            return reader.fill(interarrivalTimes, serviceTimes, interarrivalTimes.length);
+        }
+    }
+}